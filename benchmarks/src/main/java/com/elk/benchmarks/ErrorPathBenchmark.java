@@ -0,0 +1,91 @@
+package com.elk.benchmarks;
+
+import com.elk.exceptions.ApiErrorBody;
+import com.elk.exceptions.ApiErrorResponse;
+import com.elk.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a 404: throwing a domain exception from a given call depth with and without a stack trace, and
+ * serializing the error body with Jackson or from the pre-serialized parts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final String MESSAGE = "User not found by userId : 42";
+
+    private ObjectMapper objectMapper;
+    private ApiErrorBody errorBody;
+
+    @State(Scope.Thread)
+    public static class CallStack {
+
+        @Param({"20", "150"})
+        private int depth;
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        errorBody = new ApiErrorBody(HttpStatus.NOT_FOUND, "Resource not found.");
+    }
+
+    @Benchmark
+    public String throwWithStackTrace(CallStack callStack) {
+        try {
+            return throwAt(callStack.depth, false);
+        } catch (RuntimeException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String throwStackless(CallStack callStack) {
+        try {
+            return throwAt(callStack.depth, true);
+        } catch (RuntimeException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Benchmark
+    public byte[] errorBodyJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new ApiErrorResponse(HttpStatus.NOT_FOUND, "Resource not found.", MESSAGE));
+    }
+
+    @Benchmark
+    public byte[] errorBodyPreSerialized() {
+        return errorBody.render(MESSAGE);
+    }
+
+    private static String throwAt(int depth, boolean stackless) {
+        if (depth > 0) {
+            return throwAt(depth - 1, stackless);
+        }
+        if (stackless) {
+            throw new ResourceNotFoundException(MESSAGE);
+        }
+        throw new IllegalStateException(MESSAGE);
+    }
+}
@@ -0,0 +1,150 @@
+package com.elk.benchmarks;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.encoder.EncoderBase;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
+import com.elk.logging.SegmentCompression;
+import com.elk.logging.SegmentedFileAppender;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Write throughput of logback's {@link RollingFileAppender} (size and time based, as configured before) and
+ * {@link SegmentedFileAppender} for a JSON line of the size user-service writes. The encoder returns a prepared
+ * line so only the file path is measured; the {@code bytes} counter is the write rate in bytes per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileAppenderBenchmark {
+
+    private static final int LINE_SIZE = 320;
+
+    @Param({"logback", "segmented"})
+    private String appender;
+
+    @Param({"1MB", "64MB"})
+    private String maxFileSize;
+
+    private Path directory;
+    private Appender<ILoggingEvent> fileAppender;
+    private ILoggingEvent event;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Written {
+
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        LoggerContext loggerContext = new LoggerContext();
+        directory = Files.createTempDirectory("file-appender-benchmark");
+        String file = directory.resolve("user_service.log").toString();
+        FixedLineEncoder encoder = new FixedLineEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+        if ("logback".equals(appender)) {
+            RollingFileAppender<ILoggingEvent> rollingFileAppender = new RollingFileAppender<>();
+            rollingFileAppender.setContext(loggerContext);
+            rollingFileAppender.setFile(file);
+            rollingFileAppender.setEncoder(encoder);
+            SizeAndTimeBasedRollingPolicy<ILoggingEvent> rollingPolicy = new SizeAndTimeBasedRollingPolicy<>();
+            rollingPolicy.setContext(loggerContext);
+            rollingPolicy.setParent(rollingFileAppender);
+            rollingPolicy.setFileNamePattern(file + "-%d{yyyy-MM-dd}.%i.log");
+            rollingPolicy.setMaxFileSize(FileSize.valueOf(maxFileSize));
+            rollingPolicy.setMaxHistory(30);
+            rollingPolicy.start();
+            rollingFileAppender.setRollingPolicy(rollingPolicy);
+            fileAppender = rollingFileAppender;
+        } else {
+            SegmentedFileAppender segmentedFileAppender = new SegmentedFileAppender();
+            segmentedFileAppender.setContext(loggerContext);
+            segmentedFileAppender.setFile(file);
+            segmentedFileAppender.setEncoder(encoder);
+            segmentedFileAppender.setMaxFileSize(FileSize.valueOf(maxFileSize));
+            segmentedFileAppender.setCompression(SegmentCompression.GZIP);
+            fileAppender = segmentedFileAppender;
+        }
+        fileAppender.start();
+        event = new LoggingEvent(FileAppenderBenchmark.class.getName(),
+                loggerContext.getLogger("com.elk.service.impl.UserServiceImpl"),
+                ch.qos.logback.classic.Level.INFO, "Invoke getUserById method.", null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fileAppender.stop();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append(Written written) {
+        fileAppender.doAppend(event);
+        written.bytes += LINE_SIZE;
+    }
+
+    private static final class FixedLineEncoder extends EncoderBase<ILoggingEvent> {
+
+        private final byte[] line;
+
+        private FixedLineEncoder() {
+            byte[] bytes = new byte[LINE_SIZE];
+            Arrays.fill(bytes, (byte) 'x');
+            byte[] prefix = "{\"level\":\"INFO\",\"message\":\"".getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+            bytes[LINE_SIZE - 3] = '"';
+            bytes[LINE_SIZE - 2] = '}';
+            bytes[LINE_SIZE - 1] = '\n';
+            this.line = bytes;
+        }
+
+        @Override
+        public byte[] headerBytes() {
+            return null;
+        }
+
+        @Override
+        public byte[] encode(ILoggingEvent event) {
+            return line;
+        }
+
+        @Override
+        public byte[] footerBytes() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.elk.benchmarks;
+
+import com.elk.dto.DepartmentDTO;
+import com.elk.dto.UserDTO;
+import com.elk.exceptions.ApiErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body serialization with an ObjectMapper configured the way Spring Boot configures the one used by
+ * the message converters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectWriter userListWriter;
+    private ObjectMapper objectMapper;
+    private List<UserDTO> users;
+    private ApiErrorResponse errorResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userListWriter = objectMapper.writerFor(new TypeReference<List<UserDTO>>() {
+        });
+        users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            UserDTO userDTO = new UserDTO(id, "First" + id, "Last" + id, id % 2 == 0 ? "F" : "M", 20 + (int) (id % 40),
+                    id % 10, 0L);
+            userDTO.setDepartment(DepartmentDTO.builder().id(id % 10).departmentName("Department " + id % 10)
+                    .version(0L).build());
+            users.add(userDTO);
+        }
+        errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND, "Resource not found.",
+                "Resource not found : User not found by userId : 42");
+    }
+
+    @Benchmark
+    public byte[] userList() throws JsonProcessingException {
+        return userListWriter.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+}
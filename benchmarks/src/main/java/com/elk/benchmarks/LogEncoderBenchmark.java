@@ -0,0 +1,134 @@
+package com.elk.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.elk.exceptions.ResourceNotFoundException;
+import com.elk.logging.JsonLogEncoder;
+import com.elk.trace.TraceContext;
+import com.elk.trace.TraceIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding one event with the pattern used before the JSON encoder was introduced versus
+ * {@link JsonLogEncoder}, for a plain INFO line and an ERROR line with a stack trace. The ERROR benchmarks build
+ * a fresh event per operation because logback caches rendered stack frames inside the event. The request
+ * benchmarks encode the INFO lines user-service writes for one {@code GET /api/v1/user/{id}} with a department
+ * cache miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogEncoderBenchmark {
+
+    private static final String FILE_LOG_PATTERN =
+            "[%date{yyyy-MM-dd HH:mm:ss.SSS}] [%5.5level] [%X{eventTraceId}]: %c{1}: %msg%n";
+
+    private PatternLayoutEncoder patternEncoder;
+    private JsonLogEncoder jsonEncoder;
+    private Logger logger;
+    private Throwable throwable;
+    private ILoggingEvent infoEvent;
+    private List<ILoggingEvent> requestEvents;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+        patternEncoder = new PatternLayoutEncoder();
+        patternEncoder.setContext(loggerContext);
+        patternEncoder.setPattern(FILE_LOG_PATTERN);
+        patternEncoder.start();
+        jsonEncoder = new JsonLogEncoder();
+        jsonEncoder.setContext(loggerContext);
+        jsonEncoder.setService("user-service");
+        jsonEncoder.start();
+
+        logger = loggerContext.getLogger("com.elk.service.impl.UserServiceImpl");
+        throwable = new ResourceNotFoundException("User not found by userId : 42");
+        String traceId = TraceIds.newTraceId();
+        MDC.put(TraceContext.EVENT_TRACE_ID, traceId);
+        MDC.put(TraceContext.TRACE_ID, traceId);
+        MDC.put(TraceContext.SPAN_ID, TraceIds.newSpanId());
+        MDC.put(TraceContext.TRACE_FLAGS, "01");
+        infoEvent = event(logger, Level.INFO, "Invoke getUserById method for user {}.", null, 42L);
+
+        Logger clientLogger = loggerContext.getLogger("com.elk.client.DepartmentClient");
+        Logger traceLogger = loggerContext.getLogger("com.elk.trace.TraceContext");
+        Logger outboundLogger = loggerContext.getLogger("com.elk.trace.TracingClientHttpRequestInterceptor");
+        ILoggingEvent invokeEvent = event(logger, Level.INFO, "Invoke getUserById method.", null);
+        ILoggingEvent urlEvent = event(clientLogger, Level.INFO, "Department url : {}", null,
+                "http://localhost:8081/api/v1/department/7");
+        MDC.put(TraceContext.DURATION_MS, "4");
+        ILoggingEvent outboundEvent = event(outboundLogger, Level.INFO,
+                "Outbound {} {} completed with status {} in {} ms.", null, "GET",
+                "http://localhost:8081/api/v1/department/7", "200", 4L);
+        MDC.remove(TraceContext.DURATION_MS);
+        ILoggingEvent endEvent = event(logger, Level.INFO, "End getUserById method.", null);
+        MDC.put(TraceContext.DURATION_MS, "6");
+        ILoggingEvent completedEvent = event(traceLogger, Level.INFO, "{} {} completed with status {} in {} ms.",
+                null, "GET", "/api/v1/user/42", 200, 6L);
+        MDC.clear();
+        requestEvents = List.of(invokeEvent, urlEvent, outboundEvent, endEvent, completedEvent);
+    }
+
+    private static ILoggingEvent event(Logger logger, Level level, String message, Throwable throwable,
+                                       Object... arguments) {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, level, message, throwable, arguments);
+        event.prepareForDeferredProcessing();
+        return event;
+    }
+
+    @Benchmark
+    public byte[] patternInfo() {
+        return patternEncoder.encode(infoEvent);
+    }
+
+    @Benchmark
+    public byte[] jsonInfo() {
+        return jsonEncoder.encode(infoEvent);
+    }
+
+    @Benchmark
+    public void patternRequest(Blackhole blackhole) {
+        for (ILoggingEvent event : requestEvents) {
+            blackhole.consume(patternEncoder.encode(event));
+        }
+    }
+
+    @Benchmark
+    public void jsonRequest(Blackhole blackhole) {
+        for (ILoggingEvent event : requestEvents) {
+            blackhole.consume(jsonEncoder.encode(event));
+        }
+    }
+
+    @Benchmark
+    public byte[] patternError() {
+        return patternEncoder.encode(event(logger, Level.ERROR, "Exception while get user.", throwable));
+    }
+
+    @Benchmark
+    public byte[] jsonError() {
+        return jsonEncoder.encode(event(logger, Level.ERROR, "Exception while get user.", throwable));
+    }
+}
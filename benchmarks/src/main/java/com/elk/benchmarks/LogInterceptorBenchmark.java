@@ -0,0 +1,64 @@
+package com.elk.benchmarks;
+
+import com.elk.config.LogInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the user-service {@link LogInterceptor}: trace context, MDC and request deadline set up in
+ * preHandle and torn down in afterCompletion. The span completion log line is filtered by level (see
+ * logback-test.xml), its encoding cost is covered by {@link LogEncoderBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogInterceptorBenchmark {
+
+    private LogInterceptor logInterceptor;
+    private MockHttpServletRequest newTraceRequest;
+    private MockHttpServletRequest propagatedTraceRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        logInterceptor = new LogInterceptor();
+        ReflectionTestUtils.setField(logInterceptor, "defaultBudgetMs", 2000L);
+        newTraceRequest = new MockHttpServletRequest("GET", "/api/v1/user/42");
+        propagatedTraceRequest = new MockHttpServletRequest("GET", "/api/v1/user/42");
+        propagatedTraceRequest.addHeader("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        propagatedTraceRequest.addHeader("requestBudgetMs", "1500");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean newTrace() throws Exception {
+        return handle(newTraceRequest);
+    }
+
+    @Benchmark
+    public boolean propagatedTrace() throws Exception {
+        return handle(propagatedTraceRequest);
+    }
+
+    private boolean handle(MockHttpServletRequest request) throws Exception {
+        boolean proceed = logInterceptor.preHandle(request, response, null);
+        logInterceptor.afterCompletion(request, response, null, null);
+        return proceed;
+    }
+}
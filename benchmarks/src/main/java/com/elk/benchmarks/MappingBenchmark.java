@@ -0,0 +1,65 @@
+package com.elk.benchmarks;
+
+import com.elk.dto.DepartmentDTO;
+import com.elk.dto.UserDTO;
+import com.elk.model.Department;
+import com.elk.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lombok builder based entity/DTO mapping done on every create, update and read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private UserDTO userDTO;
+    private User user;
+    private DepartmentDTO departmentDTO;
+    private Department department;
+
+    @Setup
+    public void setUp() {
+        userDTO = new UserDTO(42L, "Jane", "Doe", "F", 31, 7L, 0L);
+        user = User.buildEntity(userDTO);
+        user.setId(42L);
+        departmentDTO = DepartmentDTO.builder().id(7L).departmentName("Engineering").build();
+        department = Department.buildEntity(departmentDTO);
+        department.setId(7L);
+    }
+
+    @Benchmark
+    public User userBuildEntity() {
+        return User.buildEntity(userDTO);
+    }
+
+    @Benchmark
+    public UserDTO userBuildDTO() {
+        return UserDTO.buildDTO(user);
+    }
+
+    @Benchmark
+    public Department departmentBuildEntity() {
+        return Department.buildEntity(departmentDTO);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentBuildDTO() {
+        return DepartmentDTO.buildDTO(department);
+    }
+}
@@ -0,0 +1,127 @@
+package com.elk.benchmarks;
+
+import com.elk.dto.DepartmentDTO;
+import com.elk.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of the bodies exchanged between the services per wire format, optionally gzip-compressed
+ * the way Tomcat compresses large responses. The encoded size of every combination is printed once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectWriter userListWriter;
+    private ObjectReader userListReader;
+    private ObjectWriter departmentWriter;
+    private ObjectReader departmentReader;
+    private List<UserDTO> users;
+    private DepartmentDTO department;
+    private byte[] encodedUsers;
+    private byte[] encodedDepartment;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        TypeReference<List<UserDTO>> userListType = new TypeReference<>() {
+        };
+        userListWriter = objectMapper.writerFor(userListType);
+        userListReader = objectMapper.readerFor(userListType);
+        departmentWriter = objectMapper.writerFor(DepartmentDTO.class);
+        departmentReader = objectMapper.readerFor(DepartmentDTO.class);
+        users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            UserDTO userDTO = new UserDTO(id, "First" + id, "Last" + id, id % 2 == 0 ? "F" : "M", 20 + (int) (id % 40),
+                    id % 10, 0L);
+            userDTO.setDepartment(DepartmentDTO.builder().id(id % 10).departmentName("Department " + id % 10)
+                    .version(0L).build());
+            users.add(userDTO);
+        }
+        department = DepartmentDTO.builder().id(7L).departmentName("Engineering").version(3L).build();
+        encodedUsers = encodeUsers();
+        encodedDepartment = encodeDepartment();
+        System.out.printf("%nWire size [format=%s, gzip=%s, size=%d] : users %d bytes, department %d bytes%n",
+                format, gzip, size, encodedUsers.length, encodedDepartment.length);
+    }
+
+    @Benchmark
+    public byte[] encodeUsers() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            userListWriter.writeValue(out, users);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<UserDTO> decodeUsers() throws IOException {
+        try (InputStream in = open(encodedUsers)) {
+            return userListReader.readValue(in);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeDepartment() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            departmentWriter.writeValue(out, department);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public DepartmentDTO decodeDepartment() throws IOException {
+        try (InputStream in = open(encodedDepartment)) {
+            return departmentReader.readValue(in);
+        }
+    }
+
+    private InputStream open(byte[] encoded) throws IOException {
+        InputStream in = new ByteArrayInputStream(encoded);
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+}
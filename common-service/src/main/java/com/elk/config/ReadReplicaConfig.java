@@ -0,0 +1,74 @@
+package com.elk.config;
+
+import com.elk.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source when {@code datasource.replica.urls} is set: the primary pool is built
+ * from {@code spring.datasource.*} as before and every replica pool copies its Hikari settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+@Slf4j
+public class ReadReplicaConfig {
+
+    private static final String PRIMARY_POOL_NAME = "primary";
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            @Value("${datasource.replica.urls}") List<String> replicaUrls,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${datasource.replica.max-lag-ms:1000}") long maxLagMs,
+            @Value("${datasource.replica.check-interval-ms:1000}") long checkIntervalMs,
+            @Value("${datasource.replica.primary-after-write-ms:0}") long primaryAfterWriteMs,
+            @Value("${datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(PRIMARY_POOL_NAME);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig replicaConfig = new HikariConfig();
+            primary.copyStateTo(replicaConfig);
+            replicaConfig.setJdbcUrl(replicaUrls.get(i).trim());
+            replicaConfig.setUsername(replicaUsername);
+            replicaConfig.setPassword(replicaPassword);
+            replicaConfig.setPoolName("replica-" + i);
+            replicaConfig.setReadOnly(true);
+            // Start without the replica if it is down; the lag check keeps it out of rotation.
+            replicaConfig.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(replicaConfig));
+        }
+        log.info("Read-only transactions are routed to {} replica pools.", replicas.size());
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagMs, checkIntervalMs, primaryAfterWriteMs,
+                lagQuery, lagColumn);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,21 @@
+package com.elk.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps the data source and Hibernate bootstrap eager under {@code spring.main.lazy-initialization}, so they are
+     * paid before the service reports ready instead of on its first request.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter persistenceLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class);
+    }
+}
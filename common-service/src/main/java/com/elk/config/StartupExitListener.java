@@ -0,0 +1,27 @@
+package com.elk.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Training run for the class-data sharing archive: exits as soon as the context is ready, before any other ready
+ * listener (e.g. the user stats rebuild) touches the database, so the run needs no database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "startup.exit-after-ready", havingValue = "true")
+public class StartupExitListener {
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void exit(ApplicationReadyEvent event) {
+        log.info("Exiting after startup (startup.exit-after-ready).");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
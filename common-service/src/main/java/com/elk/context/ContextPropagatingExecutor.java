@@ -0,0 +1,41 @@
+package com.elk.context;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+public class ContextPropagatingExecutor implements Executor {
+
+    private final Executor delegate;
+
+    public ContextPropagatingExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        Long deadlineNanos = RequestDeadline.get();
+        delegate.execute(() -> {
+            Map<String, String> previousMdcContext = MDC.getCopyOfContextMap();
+            Long previousDeadlineNanos = RequestDeadline.get();
+            setMdcContext(mdcContext);
+            RequestDeadline.set(deadlineNanos);
+            try {
+                task.run();
+            } finally {
+                setMdcContext(previousMdcContext);
+                RequestDeadline.set(previousDeadlineNanos);
+            }
+        });
+    }
+
+    private static void setMdcContext(Map<String, String> mdcContext) {
+        if (mdcContext == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdcContext);
+        }
+    }
+}
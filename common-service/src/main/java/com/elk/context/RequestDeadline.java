@@ -0,0 +1,58 @@
+package com.elk.context;
+
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.TimeUnit;
+
+public final class RequestDeadline {
+
+    public static final String HEADER = "requestBudgetMs";
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(long budgetMs) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+    }
+
+    public static Long get() {
+        return DEADLINE_NANOS.get();
+    }
+
+    public static void set(Long deadlineNanos) {
+        if (deadlineNanos == null) {
+            DEADLINE_NANOS.remove();
+        } else {
+            DEADLINE_NANOS.set(deadlineNanos);
+        }
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    public static long remainingMillis() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (deadlineNanos == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    public static boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    public static Long parseBudget(String headerValue) {
+        if (!StringUtils.hasLength(headerValue)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(headerValue.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.elk.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.TableStructure;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Moves every table-emulated id sequence (MySQL has no sequences, so {@code user_seq}/{@code department_seq} are
+ * tables) past the highest id already in its entity table before the service takes traffic. Tables created by
+ * {@code ddl-auto=update} start at 1, which collides with rows inserted earlier with AUTO_INCREMENT ids. The pooled
+ * optimizer hands out {@code next_val - allocationSize + 1 .. next_val}, so {@code next_val} is raised to one full
+ * allocation block above {@code max(id)}; a sequence that is already ahead is left alone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "id-sequence.align-on-startup", havingValue = "true", matchIfMissing = true)
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    private static final String VALUE_COLUMN = "next_val";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+            if (persister instanceof AbstractEntityPersister entityPersister
+                    && entityPersister.getEntityName().equals(entityPersister.getRootEntityName())) {
+                align(entityPersister);
+            }
+        }
+    }
+
+    private void align(AbstractEntityPersister persister) {
+        IdentifierGenerator generator = sessionFactory.getIdentifierGenerator(persister.getEntityName());
+        if (!(generator instanceof SequenceStyleGenerator sequenceGenerator)
+                || !(sequenceGenerator.getDatabaseStructure() instanceof TableStructure tableStructure)) {
+            return;
+        }
+        String sequenceTable = sessionFactory.getSqlStringGenerationContext().format(tableStructure.getPhysicalName());
+        long allocationSize = Math.max(1, tableStructure.getIncrementSize());
+        try {
+            Long maxId = jdbcTemplate.queryForObject("select max(" + persister.getIdentifierColumnNames()[0]
+                    + ") from " + persister.getTableName(), Long.class);
+            if (maxId == null) {
+                return;
+            }
+            long nextValue = (maxId / allocationSize + 2) * allocationSize + 1;
+            int updated = jdbcTemplate.update("update " + sequenceTable + " set " + VALUE_COLUMN + " = ? where "
+                    + VALUE_COLUMN + " < ?", nextValue, nextValue);
+            if (updated > 0) {
+                log.info("Id sequence {} moved to {}, max id in {} : {}", sequenceTable, nextValue,
+                        persister.getTableName(), maxId);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not align id sequence {} with {} : {}", sequenceTable, persister.getTableName(),
+                    ex.getMessage());
+        }
+    }
+}
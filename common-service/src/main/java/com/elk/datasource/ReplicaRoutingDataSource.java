@@ -0,0 +1,207 @@
+package com.elk.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections of read-only transactions to one of the replica pools (round robin) and everything else to the
+ * primary. A background check measures each replica's lag with {@code lagQuery}; a replica that lags more than
+ * {@code maxLagMs}, fails the check or fails to hand out a connection is skipped until a later check passes. When
+ * no replica is usable, or a write committed less than {@code primaryAfterWriteMs} ago, reads go to the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ * <p>
+ * Metrics, including those of the Hikari pools, are registered by {@link #bindTo}: the meter registry collects the
+ * metrics of every data source bean, so a data source that needs the registry to be built would form a cycle.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final long maxLagMs;
+    private final long primaryAfterWriteNanos;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder fallbackConnections = new LongAdder();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker;
+
+    private volatile long lastWriteNanos;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                                    long maxLagMs, long checkIntervalMs, long primaryAfterWriteMs,
+                                    String lagQuery, String lagColumn) {
+        this.primary = primary;
+        this.replicas = replicaDataSources.stream()
+                .map(ReplicaPool::new)
+                .toList();
+        this.maxLagMs = maxLagMs;
+        this.primaryAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(primaryAfterWriteMs);
+        this.lastWriteNanos = System.nanoTime() - primaryAfterWriteNanos;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(() -> replicas.forEach(ReplicaPool::check),
+                0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        primary.setMetricRegistry(meterRegistry);
+        routingCounter(meterRegistry, PRIMARY, "read-write", primaryConnections);
+        routingCounter(meterRegistry, PRIMARY, "fallback", fallbackConnections);
+        for (ReplicaPool replica : replicas) {
+            String pool = replica.dataSource.getPoolName();
+            replica.dataSource.setMetricRegistry(meterRegistry);
+            routingCounter(meterRegistry, pool, "read-only", replica.connections);
+            Gauge.builder("datasource.replica.lag", replica, value -> value.lagMs)
+                    .tag("pool", pool)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, value -> value.healthy ? 1 : 0)
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCompletion();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        if (System.nanoTime() - lastWriteNanos >= primaryAfterWriteNanos) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                ReplicaPool replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.connections.increment();
+                    return connection;
+                } catch (SQLException ex) {
+                    replica.markDown("connection failed : " + ex.getMessage());
+                }
+            }
+        }
+        fallbackConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are taken from the pools with their own credentials.");
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static void routingCounter(MeterRegistry meterRegistry, String pool, String reason, LongAdder count) {
+        FunctionCounter.builder("datasource.routing.connections", count, LongAdder::sum)
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private void recordWriteOnCompletion() {
+        if (primaryAfterWriteNanos <= 0 || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    lastWriteNanos = System.nanoTime();
+                }
+            }
+        });
+    }
+
+    private final class ReplicaPool {
+
+        private final HikariDataSource dataSource;
+        private final LongAdder connections = new LongAdder();
+        private volatile boolean healthy;
+        private volatile long lagMs = -1;
+        private boolean checked;
+
+        private ReplicaPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void check() {
+            try (Connection connection = dataSource.getConnection()) {
+                lagMs = StringUtils.hasText(lagQuery) ? queryLagMs(connection) : 0;
+                if (lagMs < 0) {
+                    markDown("replication is not running");
+                } else if (lagMs > maxLagMs) {
+                    markDown("lag " + lagMs + " ms exceeds " + maxLagMs + " ms");
+                } else if (!healthy) {
+                    healthy = true;
+                    log.info("Replica {} is in rotation, lag : {} ms", dataSource.getPoolName(), lagMs);
+                }
+            } catch (Exception ex) {
+                markDown("lag check failed : " + ex.getMessage());
+            }
+            checked = true;
+        }
+
+        /**
+         * Returns the lag in milliseconds, or -1 when the query returns no row or a null lag.
+         */
+        private long queryLagMs(Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return -1;
+                }
+                long lagSeconds = resultSet.getLong(lagColumn);
+                return resultSet.wasNull() ? -1 : TimeUnit.SECONDS.toMillis(lagSeconds);
+            }
+        }
+
+        private void markDown(String reason) {
+            if (healthy || !checked) {
+                healthy = false;
+                log.warn("Replica {} taken out of rotation, {}", dataSource.getPoolName(), reason);
+            }
+        }
+    }
+}
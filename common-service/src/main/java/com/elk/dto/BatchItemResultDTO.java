@@ -0,0 +1,34 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItemResultDTO {
+
+    private int index;
+    private Long id;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, id, Status.CREATED, null);
+    }
+
+    public static BatchItemResultDTO updated(int index, Long id) {
+        return new BatchItemResultDTO(index, id, Status.UPDATED, null);
+    }
+
+    public static BatchItemResultDTO failed(int index, Long id, String message) {
+        return new BatchItemResultDTO(index, id, Status.FAILED, message);
+    }
+}
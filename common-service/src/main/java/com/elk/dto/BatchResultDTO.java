@@ -0,0 +1,35 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResultDTO {
+
+    private int created;
+    private int updated;
+    private int failed;
+    private List<BatchItemResultDTO> items;
+
+    public static BatchResultDTO buildResult(List<BatchItemResultDTO> items) {
+        BatchResultDTO batchResultDTO = new BatchResultDTO();
+        for (BatchItemResultDTO item : items) {
+            if (item.getStatus() == BatchItemResultDTO.Status.CREATED) {
+                batchResultDTO.created++;
+            } else if (item.getStatus() == BatchItemResultDTO.Status.UPDATED) {
+                batchResultDTO.updated++;
+            } else {
+                batchResultDTO.failed++;
+            }
+        }
+        batchResultDTO.setItems(items);
+        return batchResultDTO;
+    }
+}
@@ -0,0 +1,19 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConnectionPoolStatsDTO {
+
+    private int leased;
+    private int pending;
+    private int available;
+    private int max;
+    private int routes;
+}
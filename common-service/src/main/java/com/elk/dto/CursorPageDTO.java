@@ -0,0 +1,29 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static com.elk.utils.CursorUtils.encode;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    public static <T> CursorPageDTO<T> buildPage(List<T> rows, int limit, Function<T, Long> idExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPageDTO<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPageDTO<>(items, encode(idExtractor.apply(items.get(limit - 1))));
+    }
+}
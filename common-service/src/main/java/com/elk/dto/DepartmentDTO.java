@@ -14,6 +14,7 @@ public class DepartmentDTO {
 
     private Long id;
     private String departmentName;
+    private Long version;
 
     public static DepartmentDTO buildDTO(Department department) {
         DepartmentDTO departmentDTO = null;
@@ -21,6 +22,7 @@ public class DepartmentDTO {
             departmentDTO = DepartmentDTO.builder()
                     .id(department.getId())
                     .departmentName(department.getDepartmentName())
+                    .version(department.getVersion())
                     .build();
         }
         return departmentDTO;
@@ -0,0 +1,23 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestionStatsDTO {
+
+    private boolean enabled;
+    private int queued;
+    private int capacity;
+    private long accepted;
+    private long rejected;
+    private long committed;
+    private long failed;
+    private long commits;
+    private double averageBatchSize;
+}
@@ -0,0 +1,24 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogPipelineStatsDTO {
+
+    private String appender;
+    private String overflowPolicy;
+    private int capacity;
+    private int queueDepth;
+    private long enqueuedCount;
+    private long droppedCount;
+    private long blockedCount;
+    private long shippedCount;
+    private long spilledCount;
+    private long failedBatchCount;
+}
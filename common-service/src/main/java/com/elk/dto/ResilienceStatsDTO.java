@@ -0,0 +1,21 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResilienceStatsDTO {
+
+    private String circuitState;
+    private float failureRate;
+    private float slowCallRate;
+    private long notPermittedCalls;
+    private double hedgeDelayMs;
+    private long hedgedCalls;
+    private long hedgeWins;
+}
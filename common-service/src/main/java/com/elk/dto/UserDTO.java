@@ -18,8 +18,20 @@ public class UserDTO {
     private String gender;
     private int age;
     private Long departmentId;
+    private Long version;
     private DepartmentDTO department;
 
+    public UserDTO(Long id, String firstName, String lastName, String gender, int age, Long departmentId,
+                   Long version) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.gender = gender;
+        this.age = age;
+        this.departmentId = departmentId;
+        this.version = version;
+    }
+
     public static UserDTO buildDTO(User user) {
         UserDTO userDTO = null;
         if (user != null) {
@@ -30,6 +42,7 @@ public class UserDTO {
                     .gender(user.getGender())
                     .age(user.getAge())
                     .departmentId(user.getDepartmentId())
+                    .version(user.getVersion())
                     .build();
         }
         return userDTO;
@@ -0,0 +1,22 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserFilterDTO {
+
+    private Long departmentId;
+    private String gender;
+    private Integer minAge;
+    private Integer maxAge;
+
+    public boolean isEmpty() {
+        return departmentId == null && gender == null && minAge == null && maxAge == null;
+    }
+}
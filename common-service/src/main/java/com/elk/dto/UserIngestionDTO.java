@@ -0,0 +1,34 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserIngestionDTO {
+
+    private String acceptanceId;
+    private Status status;
+    private Long userId;
+    private String message;
+
+    public enum Status {
+        QUEUED, COMMITTED, FAILED
+    }
+
+    public static UserIngestionDTO queued(String acceptanceId) {
+        return new UserIngestionDTO(acceptanceId, Status.QUEUED, null, null);
+    }
+
+    public static UserIngestionDTO committed(String acceptanceId, Long userId) {
+        return new UserIngestionDTO(acceptanceId, Status.COMMITTED, userId, null);
+    }
+
+    public static UserIngestionDTO failed(String acceptanceId, String message) {
+        return new UserIngestionDTO(acceptanceId, Status.FAILED, null, message);
+    }
+}
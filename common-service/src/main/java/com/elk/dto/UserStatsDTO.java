@@ -0,0 +1,22 @@
+package com.elk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserStatsDTO {
+
+    private long totalUsers;
+    private Map<Long, Long> usersPerDepartment;
+    private long usersWithoutDepartment;
+    private Map<String, Long> ageHistogram;
+    private Map<String, Long> genders;
+    private String reconciledAt;
+}
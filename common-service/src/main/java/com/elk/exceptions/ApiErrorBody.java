@@ -0,0 +1,73 @@
+package com.elk.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link ApiErrorResponse} JSON for one status and key, rendered once. Building a response only escapes the
+ * description and joins it with the pre-serialized parts, producing the same bytes Jackson would.
+ */
+public final class ApiErrorBody {
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final byte[] withoutDescription;
+
+    public ApiErrorBody(HttpStatus status, String key) {
+        String head = "{\"code\":\"" + status.name() + "\",\"key\":" + quote(key);
+        String tail = "\"statusCode\":" + status.value() + "}";
+        this.prefix = (head + ",\"description\":").getBytes(StandardCharsets.UTF_8);
+        this.suffix = ("," + tail).getBytes(StandardCharsets.UTF_8);
+        this.withoutDescription = (head + "," + tail).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public byte[] render(String description) {
+        if (description == null) {
+            return withoutDescription;
+        }
+        byte[] quoted = quote(description).getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[prefix.length + quoted.length + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(quoted, 0, body, prefix.length, quoted.length);
+        System.arraycopy(suffix, 0, body, prefix.length + quoted.length, suffix.length);
+        return body;
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
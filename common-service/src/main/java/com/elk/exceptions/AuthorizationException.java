@@ -1,6 +1,6 @@
 package com.elk.exceptions;
 
-public class AuthorizationException extends RuntimeException {
+public class AuthorizationException extends StacklessException {
 
     public String message;
 
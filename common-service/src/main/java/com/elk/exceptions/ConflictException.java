@@ -0,0 +1,15 @@
+package com.elk.exceptions;
+
+public class ConflictException extends StacklessException {
+
+    public String message;
+
+    public ConflictException(String message) {
+        super(message);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
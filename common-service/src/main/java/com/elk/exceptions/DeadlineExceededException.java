@@ -0,0 +1,15 @@
+package com.elk.exceptions;
+
+public class DeadlineExceededException extends StacklessException {
+
+    public String message;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
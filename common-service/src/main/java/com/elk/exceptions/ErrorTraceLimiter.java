@@ -0,0 +1,59 @@
+package com.elk.exceptions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets the stack trace of a server error through once per throw site and window. Repeats inside the window are
+ * only counted, and the count is handed back with the next trace let through for that site.
+ */
+final class ErrorTraceLimiter {
+
+    static final long SUPPRESSED = -1;
+
+    private static final String OVERFLOW_SITE = "overflow";
+
+    private final long windowNanos;
+    private final int maxSites;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+
+    ErrorTraceLimiter(long windowSeconds, int maxSites) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.maxSites = maxSites;
+    }
+
+    /**
+     * Returns {@link #SUPPRESSED} when the trace should not be logged, otherwise the number of traces suppressed
+     * for the same site since the last one logged.
+     */
+    long acquire(Throwable ex) {
+        String signature = signature(ex);
+        Site site = sites.get(signature);
+        if (site == null) {
+            site = sites.size() < maxSites
+                    ? sites.computeIfAbsent(signature, key -> new Site())
+                    : sites.computeIfAbsent(OVERFLOW_SITE, key -> new Site());
+        }
+        long now = System.nanoTime();
+        long nextLogNanos = site.nextLogNanos.get();
+        if (now - nextLogNanos < 0 || !site.nextLogNanos.compareAndSet(nextLogNanos, now + windowNanos)) {
+            site.suppressed.increment();
+            return SUPPRESSED;
+        }
+        return site.suppressed.sumThenReset();
+    }
+
+    private static String signature(Throwable ex) {
+        StackTraceElement[] stackTrace = ex.getStackTrace();
+        return ex.getClass().getName() + "@" + (stackTrace.length > 0 ? stackTrace[0] : ex.getMessage());
+    }
+
+    private static final class Site {
+
+        private final AtomicLong nextLogNanos = new AtomicLong(System.nanoTime());
+        private final LongAdder suppressed = new LongAdder();
+    }
+}
@@ -1,56 +1,136 @@
 package com.elk.exceptions;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @ControllerAdvice
-@AllArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final ApiErrorBody NOT_FOUND_BODY = new ApiErrorBody(HttpStatus.NOT_FOUND, "Resource not found.");
+    private static final ApiErrorBody INTERNAL_SERVER_ERROR_BODY = new ApiErrorBody(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error.");
+    private static final ApiErrorBody BAD_REQUEST_BODY = new ApiErrorBody(HttpStatus.BAD_REQUEST, "Invalid request.");
+    private static final ApiErrorBody CONFLICT_BODY = new ApiErrorBody(HttpStatus.CONFLICT, "Conflict.");
+    private static final ApiErrorBody UNAUTHORIZED_BODY = new ApiErrorBody(HttpStatus.UNAUTHORIZED, "Unauthorized.");
+    private static final ApiErrorBody GATEWAY_TIMEOUT_BODY = new ApiErrorBody(HttpStatus.GATEWAY_TIMEOUT, "Deadline exceeded.");
+    private static final ApiErrorBody SERVICE_UNAVAILABLE_BODY = new ApiErrorBody(HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable.");
+    private static final ApiErrorBody TOO_MANY_REQUESTS_BODY = new ApiErrorBody(HttpStatus.TOO_MANY_REQUESTS, "Too many requests.");
+
+    private final MeterRegistry meterRegistry;
+    private final ErrorTraceLimiter errorTraceLimiter;
+    private final Map<Class<?>, Counter> exceptionCounters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry,
+                                  @Value("${exception.trace-window-seconds:60}") long traceWindowSeconds,
+                                  @Value("${exception.trace-max-sites:1000}") int traceMaxSites) {
+        this.meterRegistry = meterRegistry;
+        this.errorTraceLimiter = new ErrorTraceLimiter(traceWindowSeconds, traceMaxSites);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public final ResponseEntity<Object> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        log.error("Handling resource not found exception : ", ex);
-
-        ApiErrorResponse apiError = new ApiErrorResponse(HttpStatus.NOT_FOUND, "Resource not found.", ex.getMessage());
-        return buildResponseEntity(apiError);
+        return buildResponseEntity(ex, HttpStatus.NOT_FOUND, NOT_FOUND_BODY);
     }
 
     @ExceptionHandler(InternalServerException.class)
     public final ResponseEntity<Object> handleInternalServerException(InternalServerException ex) {
-        log.error("Internal server exception : ", ex);
-
-        ApiErrorResponse apiError = new ApiErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error.", ex.getMessage());
-        return buildResponseEntity(apiError);
+        return buildResponseEntity(ex, HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR_BODY);
     }
 
     @ExceptionHandler(InvalidRequestException.class)
     public final ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException ex) {
-        log.error("Request not valid exception : ", ex);
+        return buildResponseEntity(ex, HttpStatus.BAD_REQUEST, BAD_REQUEST_BODY);
+    }
 
-        ApiErrorResponse apiError = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "Invalid request.", ex.getMessage());
-        return buildResponseEntity(apiError);
+    @ExceptionHandler(ConflictException.class)
+    public final ResponseEntity<Object> handleConflictException(ConflictException ex) {
+        return buildResponseEntity(ex, HttpStatus.CONFLICT, CONFLICT_BODY);
     }
 
     @ExceptionHandler(AuthorizationException.class)
     public final ResponseEntity<Object> handleUnAuthorizationException(AuthorizationException ex) {
-        log.error("Request not valid exception : ", ex);
+        return buildResponseEntity(ex, HttpStatus.UNAUTHORIZED, UNAUTHORIZED_BODY);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public final ResponseEntity<Object> handleDeadlineExceededException(DeadlineExceededException ex) {
+        return buildResponseEntity(ex, HttpStatus.GATEWAY_TIMEOUT, GATEWAY_TIMEOUT_BODY);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public final ResponseEntity<Object> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return buildResponseEntity(ex, HttpStatus.SERVICE_UNAVAILABLE, SERVICE_UNAVAILABLE_BODY);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public final ResponseEntity<Object> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return buildResponseEntity(ex, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS_BODY);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public final ResponseEntity<Object> handleUnexpectedException(Exception ex) {
+        countException(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        logException(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(INTERNAL_SERVER_ERROR_BODY.render("Unexpected error."));
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatus status, WebRequest request) {
+        countException(ex, status);
+        logException(ex, status);
+        return super.handleExceptionInternal(ex, body, headers, status, request);
+    }
+
+    private ResponseEntity<Object> buildResponseEntity(Exception ex, HttpStatus status, ApiErrorBody body) {
+        countException(ex, status);
+        logException(ex, status);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.render(ex.getMessage()));
+    }
 
-        ApiErrorResponse apiError = new ApiErrorResponse(HttpStatus.UNAUTHORIZED, "Unauthorized.", ex.getMessage());
-        return buildResponseEntity(apiError);
+    private void logException(Exception ex, HttpStatus status) {
+        if (!status.is5xxServerError()) {
+            log.warn("{} {} : {}", status.value(), ex.getClass().getSimpleName(), ex.getMessage());
+            return;
+        }
+        long suppressed = errorTraceLimiter.acquire(ex);
+        if (suppressed == ErrorTraceLimiter.SUPPRESSED) {
+            return;
+        }
+        if (suppressed > 0) {
+            log.error("{} {} : {} ({} similar errors suppressed)", status.value(), ex.getClass().getSimpleName(),
+                    ex.getMessage(), suppressed, ex);
+        } else {
+            log.error("{} {} : {}", status.value(), ex.getClass().getSimpleName(), ex.getMessage(), ex);
+        }
     }
 
-    private ResponseEntity<Object> buildResponseEntity(ApiErrorResponse apiError) {
-        return new ResponseEntity<>(apiError, apiError.getCode());
+    private void countException(Exception ex, HttpStatus status) {
+        exceptionCounters.computeIfAbsent(ex.getClass(), exceptionClass -> Counter.builder("api.exceptions")
+                .tag("exception", exceptionClass.getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)).increment();
     }
 
     private String getStackTrace(Exception ex) {
@@ -9,6 +9,11 @@ public class InternalServerException extends RuntimeException {
         this.message = message;
     }
 
+    public InternalServerException(String message, Throwable cause) {
+        super(message, cause);
+        this.message = message;
+    }
+
     public String getMessage() {
         return message;
     }
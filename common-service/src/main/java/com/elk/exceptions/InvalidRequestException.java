@@ -4,7 +4,7 @@ import org.springframework.validation.ObjectError;
 
 import java.util.List;
 
-public class InvalidRequestException extends RuntimeException {
+public class InvalidRequestException extends StacklessException {
 
     public List<ObjectError> validationErrors;
     public String message;
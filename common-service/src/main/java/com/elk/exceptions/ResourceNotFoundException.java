@@ -5,7 +5,7 @@ import lombok.Getter;
 import static java.lang.String.format;
 
 @Getter
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends StacklessException {
 
     public ResourceNotFoundException(final Class resourceClazz, final String resource) {
         super(format("Resource %s not found for %s", resourceClazz.getSimpleName(), resource));
@@ -0,0 +1,15 @@
+package com.elk.exceptions;
+
+public class ServiceUnavailableException extends StacklessException {
+
+    public String message;
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,12 @@
+package com.elk.exceptions;
+
+/**
+ * Base of the exceptions that report an expected outcome (missing id, invalid request, open circuit). They are
+ * created without a stack trace: it is never logged for them and is the most expensive part of the throw.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
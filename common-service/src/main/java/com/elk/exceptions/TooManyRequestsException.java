@@ -0,0 +1,15 @@
+package com.elk.exceptions;
+
+public class TooManyRequestsException extends StacklessException {
+
+    public String message;
+
+    public TooManyRequestsException(String message) {
+        super(message);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
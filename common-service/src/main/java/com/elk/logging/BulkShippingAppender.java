@@ -0,0 +1,617 @@
+package com.elk.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ships encoded events in batches to a Logstash http/tcp input or the Elasticsearch {@code _bulk} API from one
+ * background thread, so logs reach ELK without a file in between. A batch is sent when it holds
+ * {@code batchSize} events or {@code maxBatchBytes}, or when its first event has waited {@code maxBatchAgeMs}.
+ * Failed sends are retried with exponential backoff; a batch that still fails is written to {@code spillFile},
+ * further batches go straight to the file while the sink is backed off, and the file is replayed a batch at a time
+ * after every batch accepted again. Events that Elasticsearch rejects inside an accepted bulk request are spilled
+ * when the rejection is temporary (429, 5xx) and dropped otherwise. Queued events are bounded by {@code queueSize} and {@code maxQueuedBytes}; events beyond that
+ * are dropped and counted. Without a {@code url} every event is discarded.
+ */
+public class BulkShippingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_QUEUE_SIZE = 16384;
+
+    private static final long IDLE_POLL_MS = 100;
+    private static final byte[] BULK_ACTION = "{\"create\":{}}\n".getBytes(StandardCharsets.UTF_8);
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String DISABLED_URL = "none";
+    private static final String UNDEFINED_SUFFIX = "_IS_UNDEFINED";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong shippedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+
+    private Encoder<ILoggingEvent> encoder;
+    private String url;
+    private ShippingFormat format = ShippingFormat.NDJSON;
+    private String username;
+    private String password;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxBatchBytes = 1024 * 1024;
+    private int maxBatchAgeMs = 1000;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private long maxQueuedBytes = 8 * 1024 * 1024;
+    private boolean compress = true;
+    private int maxRetries = 3;
+    private int retryInitialBackoffMs = 200;
+    private int retryMaxBackoffMs = 30_000;
+    private int connectTimeoutMs = 2000;
+    private int requestTimeoutMs = 10_000;
+    private String spillFile;
+    private long maxSpillBytes = 100L * 1024 * 1024;
+    private int maxFlushTimeMs = 2000;
+
+    private ArrayBlockingQueue<byte[]> queue;
+    private URI uri;
+    private HttpClient httpClient;
+    private String authorization;
+    private SpillFile spill;
+    private Thread shipper;
+    private long backoffMs;
+    private long sinkDownUntilNanos;
+    private boolean sinkDown;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (encoder == null) {
+            addError("No encoder set for [" + name + "].");
+            return;
+        }
+        if (!isShippingUrl(url)) {
+            addInfo("No url set, [" + name + "] discards all events.");
+            super.start();
+            return;
+        }
+        uri = URI.create(url.trim());
+        if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .build();
+        } else if (!"tcp".equals(uri.getScheme()) || uri.getHost() == null || uri.getPort() < 0) {
+            addError("Unsupported url [" + url + "] for [" + name + "], expected http(s)://... or tcp://host:port.");
+            return;
+        }
+        if (username != null && !username.isEmpty()) {
+            authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        }
+        if (spillFile != null && !spillFile.isBlank()) {
+            try {
+                spill = new SpillFile(Paths.get(spillFile), maxSpillBytes);
+            } catch (IOException ex) {
+                addError("Could not open spill file [" + spillFile + "] for [" + name + "].", ex);
+            }
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        shipper = new Thread(this::ship, "log-ship-" + name);
+        shipper.setDaemon(true);
+        super.start();
+        shipper.start();
+        addInfo("Started [" + name + "] shipping " + format + " to " + uri + ".");
+    }
+
+    /**
+     * False for an empty url, the {@code none} default of the logback configuration and an undefined variable, which
+     * logback substitutes as {@code <NAME>_IS_UNDEFINED}.
+     */
+    private static boolean isShippingUrl(String url) {
+        return url != null && !url.isBlank() && !url.trim().equalsIgnoreCase(DISABLED_URL)
+                && !url.trim().endsWith(UNDEFINED_SUFFIX);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        if (shipper == null) {
+            return;
+        }
+        try {
+            shipper.join(maxFlushTimeMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (shipper.isAlive()) {
+            addWarn("Max flush time reached, " + queue.size() + " events of [" + name + "] were not shipped.");
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (queue == null) {
+            return;
+        }
+        byte[] line = encoder.encode(event);
+        if (queuedBytes.get() + line.length > maxQueuedBytes || !queue.offer(line)) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        queuedBytes.addAndGet(line.length);
+        enqueuedCount.incrementAndGet();
+    }
+
+    private void ship() {
+        List<byte[]> batch = new ArrayList<>(batchSize);
+        while (isStarted()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException ex) {
+                break;
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+            }
+            if (spill != null && spill.hasPending() && !isBackedOff()) {
+                replay();
+            }
+        }
+        long flushDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxFlushTimeMs);
+        while (System.nanoTime() < flushDeadline && !queue.isEmpty()) {
+            int bytes = 0;
+            byte[] line;
+            while (batch.size() < batchSize && bytes < maxBatchBytes && (line = take()) != null) {
+                batch.add(line);
+                bytes += line.length;
+            }
+            deliver(batch);
+            batch.clear();
+        }
+        closeSpill();
+    }
+
+    private void collect(List<byte[]> batch) throws InterruptedException {
+        byte[] line = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (line == null) {
+            return;
+        }
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchAgeMs);
+        int bytes = 0;
+        while (line != null) {
+            queuedBytes.addAndGet(-line.length);
+            batch.add(line);
+            bytes += line.length;
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (batch.size() >= batchSize || bytes >= maxBatchBytes || remainingNanos <= 0 || !isStarted()) {
+                return;
+            }
+            line = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] take() {
+        byte[] line = queue.poll();
+        if (line != null) {
+            queuedBytes.addAndGet(-line.length);
+        }
+        return line;
+    }
+
+    private void deliver(List<byte[]> batch) {
+        if (isBackedOff()) {
+            spill(batch);
+            return;
+        }
+        if (send(batch, isStarted() ? maxRetries : 0)) {
+            return;
+        }
+        failedBatchCount.incrementAndGet();
+        spill(batch);
+    }
+
+    private void replay() {
+        try {
+            List<byte[]> lines = spill.read(batchSize, maxBatchBytes);
+            if (!lines.isEmpty() && send(lines, 0)) {
+                spill.commit(lines);
+            }
+        } catch (IOException ex) {
+            addError("Could not replay spill file of [" + name + "].", ex);
+        }
+    }
+
+    private void spill(List<byte[]> batch) {
+        int written = 0;
+        if (spill != null) {
+            try {
+                written = spill.append(batch);
+            } catch (IOException ex) {
+                addError("Could not write spill file of [" + name + "].", ex);
+            }
+        }
+        spilledCount.addAndGet(written);
+        droppedCount.addAndGet(batch.size() - written);
+    }
+
+    /**
+     * Sends the lines and counts them as shipped, except for the events Elasticsearch rejected inside the bulk
+     * response, which are handed to {@link #requeueRejected}. False when the request itself failed.
+     */
+    private boolean send(List<byte[]> lines, int retries) {
+        byte[] body;
+        try {
+            body = buildBody(lines);
+        } catch (IOException ex) {
+            addError("Could not build batch of [" + name + "].", ex);
+            return false;
+        }
+        long delayMs = retryInitialBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                String response = null;
+                if (httpClient != null) {
+                    response = sendHttp(body);
+                } else {
+                    sendTcp(body);
+                }
+                backoffMs = 0;
+                sinkDown = false;
+                int rejected = response == null ? 0 : requeueRejected(lines, response);
+                shippedCount.addAndGet(lines.size() - rejected);
+                return true;
+            } catch (IOException ex) {
+                if (attempt >= retries) {
+                    backOff(ex.getMessage());
+                    return false;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                backOff(ex.getMessage());
+                return false;
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            delayMs = Math.min(delayMs * 2, retryMaxBackoffMs);
+        }
+    }
+
+    /**
+     * Spills the events of an Elasticsearch bulk response that failed with a temporary status (429, 5xx) and backs
+     * off, so they are replayed once the backoff has passed. Other failures (mapping errors and the like) would
+     * fail again and are dropped. Returns the number of events not indexed.
+     */
+    private int requeueRejected(List<byte[]> lines, String response) {
+        if (format != ShippingFormat.ELASTICSEARCH_BULK || !response.contains("\"errors\":true")) {
+            return 0;
+        }
+        JsonNode items;
+        try {
+            items = OBJECT_MAPPER.readTree(response).path("items");
+        } catch (IOException ex) {
+            addWarn("Could not read bulk response of [" + name + "], rejected events are not retried.", ex);
+            return 0;
+        }
+        if (items.size() != lines.size()) {
+            addWarn("Bulk response of [" + name + "] has " + items.size() + " items for " + lines.size()
+                    + " events, rejected events are not retried.");
+            return 0;
+        }
+        List<byte[]> retryable = new ArrayList<>();
+        int dropped = 0;
+        String error = null;
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode item = items.get(i).path("create");
+            int status = item.path("status").asInt();
+            if (status / 100 == 2) {
+                continue;
+            }
+            if (status == 429 || status / 100 == 5) {
+                retryable.add(lines.get(i));
+            } else {
+                dropped++;
+                error = item.path("error").path("reason").asText(null);
+            }
+        }
+        if (dropped > 0) {
+            droppedCount.addAndGet(dropped);
+            addWarn("Elasticsearch rejected " + dropped + " events of a batch from [" + name + "] : " + error);
+        }
+        if (!retryable.isEmpty()) {
+            spill(retryable);
+            backOff("Elasticsearch rejected " + retryable.size() + " events of a batch as temporarily unavailable");
+        }
+        return dropped + retryable.size();
+    }
+
+    private void backOff(String reason) {
+        backoffMs = backoffMs == 0 ? retryInitialBackoffMs : Math.min(backoffMs * 2, retryMaxBackoffMs);
+        sinkDownUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        if (!sinkDown) {
+            addWarn("Sink of [" + name + "] is unavailable, spilling until it recovers : " + reason);
+        }
+        sinkDown = true;
+    }
+
+    private boolean isBackedOff() {
+        return sinkDown && System.nanoTime() - sinkDownUntilNanos < 0;
+    }
+
+    private byte[] buildBody(List<byte[]> lines) throws IOException {
+        int size = 0;
+        for (byte[] line : lines) {
+            size += line.length + (format == ShippingFormat.ELASTICSEARCH_BULK ? BULK_ACTION.length : 0);
+        }
+        boolean gzip = compress && httpClient != null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(gzip ? size / 4 + 64 : size);
+        try (OutputStream out = gzip ? new FastGzipOutputStream(bytes) : bytes) {
+            for (byte[] line : lines) {
+                if (format == ShippingFormat.ELASTICSEARCH_BULK) {
+                    out.write(BULK_ACTION);
+                }
+                out.write(line);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private String sendHttp(byte[] body) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", NDJSON)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (compress) {
+            builder.header("Content-Encoding", "gzip");
+        }
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + uri);
+        }
+        return response.body();
+    }
+
+    private void sendTcp(byte[] body) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), connectTimeoutMs);
+            socket.setSoTimeout(requestTimeoutMs);
+            OutputStream out = socket.getOutputStream();
+            out.write(body);
+            out.flush();
+        }
+    }
+
+    private void closeSpill() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.close();
+        } catch (IOException ex) {
+            addError("Could not close spill file of [" + name + "].", ex);
+        }
+    }
+
+    public int getCapacity() {
+        return queue == null ? 0 : queueSize;
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getShippedCount() {
+        return shippedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    public Encoder<ILoggingEvent> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public ShippingFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(ShippingFormat format) {
+        this.format = format;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public void setMaxBatchBytes(int maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    public int getMaxBatchAgeMs() {
+        return maxBatchAgeMs;
+    }
+
+    public void setMaxBatchAgeMs(int maxBatchAgeMs) {
+        this.maxBatchAgeMs = maxBatchAgeMs;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public long getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    public void setMaxQueuedBytes(long maxQueuedBytes) {
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public int getRetryInitialBackoffMs() {
+        return retryInitialBackoffMs;
+    }
+
+    public void setRetryInitialBackoffMs(int retryInitialBackoffMs) {
+        this.retryInitialBackoffMs = retryInitialBackoffMs;
+    }
+
+    public int getRetryMaxBackoffMs() {
+        return retryMaxBackoffMs;
+    }
+
+    public void setRetryMaxBackoffMs(int retryMaxBackoffMs) {
+        this.retryMaxBackoffMs = retryMaxBackoffMs;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public void setRequestTimeoutMs(int requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    public String getSpillFile() {
+        return spillFile;
+    }
+
+    public void setSpillFile(String spillFile) {
+        this.spillFile = spillFile;
+    }
+
+    public long getMaxSpillBytes() {
+        return maxSpillBytes;
+    }
+
+    public void setMaxSpillBytes(long maxSpillBytes) {
+        this.maxSpillBytes = maxSpillBytes;
+    }
+
+    public int getMaxFlushTimeMs() {
+        return maxFlushTimeMs;
+    }
+
+    public void setMaxFlushTimeMs(int maxFlushTimeMs) {
+        this.maxFlushTimeMs = maxFlushTimeMs;
+    }
+
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        private FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 8192);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
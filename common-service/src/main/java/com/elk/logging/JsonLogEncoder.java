@@ -0,0 +1,174 @@
+package com.elk.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Writes one JSON object per line (NDJSON) so Logstash can read events with the json codec instead of grok.
+ * Fields are written from the event into a per-thread byte buffer:
+ * {@code @timestamp}, {@code level}, {@code logger}, {@code thread}, {@code service}, every MDC entry
+ * ({@code eventTraceId}, ...), {@code message} and an {@code exception} object with class, message, frames
+ * and cause chain.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CAUSE_DEPTH = 8;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final ThreadLocal<JsonByteWriter> WRITER =
+            ThreadLocal.withInitial(() -> new JsonByteWriter(INITIAL_BUFFER_SIZE));
+    private static final ThreadLocal<DayPrefix> DAY_PREFIX = ThreadLocal.withInitial(DayPrefix::new);
+
+    private String service;
+    private int maxStackFrames = 100;
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        JsonByteWriter writer = WRITER.get();
+        writer.reset();
+        writer.writeAscii("{\"@timestamp\":\"");
+        writeTimestamp(writer, event.getTimeStamp());
+        writer.writeAscii("\",\"level\":\"");
+        writer.writeAscii(event.getLevel().levelStr);
+        writer.writeAscii("\",\"logger\":");
+        writer.writeString(event.getLoggerName());
+        writer.writeAscii(",\"thread\":");
+        writer.writeString(event.getThreadName());
+        if (service != null) {
+            writer.writeAscii(",\"service\":");
+            writer.writeString(service);
+        }
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                writer.writeByte(',');
+                writer.writeString(entry.getKey());
+                writer.writeByte(':');
+                writer.writeString(entry.getValue());
+            }
+        }
+        writer.writeAscii(",\"message\":");
+        writer.writeString(event.getFormattedMessage());
+        IThrowableProxy throwableProxy = event.getThrowableProxy();
+        if (throwableProxy != null) {
+            writer.writeAscii(",\"exception\":");
+            writeThrowable(writer, throwableProxy, 0);
+        }
+        writer.writeAscii("}\n");
+        byte[] bytes = writer.toByteArray();
+        if (writer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            WRITER.remove();
+        }
+        return bytes;
+    }
+
+    private void writeThrowable(JsonByteWriter writer, IThrowableProxy throwableProxy, int depth) {
+        writer.writeAscii("{\"class\":");
+        writer.writeString(throwableProxy.getClassName());
+        writer.writeAscii(",\"message\":");
+        writer.writeString(throwableProxy.getMessage());
+        writer.writeAscii(",\"stackTrace\":[");
+        StackTraceElementProxy[] frames = throwableProxy.getStackTraceElementProxyArray();
+        int frameCount = Math.min(frames.length, maxStackFrames);
+        for (int i = 0; i < frameCount; i++) {
+            if (i > 0) {
+                writer.writeByte(',');
+            }
+            writeFrame(writer, frames[i].getStackTraceElement());
+        }
+        writer.writeByte(']');
+        if (frames.length > frameCount) {
+            writer.writeAscii(",\"omittedFrames\":");
+            writer.writeLong(frames.length - frameCount);
+        }
+        IThrowableProxy cause = throwableProxy.getCause();
+        if (cause != null && depth < MAX_CAUSE_DEPTH) {
+            writer.writeAscii(",\"cause\":");
+            writeThrowable(writer, cause, depth + 1);
+        }
+        writer.writeByte('}');
+    }
+
+    private static void writeFrame(JsonByteWriter writer, StackTraceElement frame) {
+        writer.writeByte('"');
+        writer.writeEscaped(frame.getClassName());
+        writer.writeByte('.');
+        writer.writeEscaped(frame.getMethodName());
+        writer.writeByte('(');
+        if (frame.isNativeMethod()) {
+            writer.writeAscii("Native Method");
+        } else if (frame.getFileName() == null) {
+            writer.writeAscii("Unknown Source");
+        } else {
+            writer.writeEscaped(frame.getFileName());
+            if (frame.getLineNumber() >= 0) {
+                writer.writeByte(':');
+                writer.writeLong(frame.getLineNumber());
+            }
+        }
+        writer.writeAscii(")\"");
+    }
+
+    private static void writeTimestamp(JsonByteWriter writer, long epochMillis) {
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        writer.writeBytes(DAY_PREFIX.get().forDay(Math.floorDiv(epochMillis, MILLIS_PER_DAY)));
+        writer.writePadded((int) (millisOfDay / 3_600_000), 2);
+        writer.writeByte(':');
+        writer.writePadded((int) (millisOfDay / 60_000 % 60), 2);
+        writer.writeByte(':');
+        writer.writePadded((int) (millisOfDay / 1000 % 60), 2);
+        writer.writeByte('.');
+        writer.writePadded((int) (millisOfDay % 1000), 3);
+        writer.writeByte('Z');
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public void setService(String service) {
+        this.service = service;
+    }
+
+    public int getMaxStackFrames() {
+        return maxStackFrames;
+    }
+
+    public void setMaxStackFrames(int maxStackFrames) {
+        this.maxStackFrames = maxStackFrames;
+    }
+
+    /**
+     * Caches the UTC {@code yyyy-MM-ddT} bytes for the day of the last encoded event.
+     */
+    private static final class DayPrefix {
+
+        private long epochDay = Long.MIN_VALUE;
+        private byte[] bytes;
+
+        byte[] forDay(long day) {
+            if (day != epochDay) {
+                bytes = (LocalDate.ofEpochDay(day) + "T").getBytes();
+                epochDay = day;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.elk.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.elk.dto.LogPipelineStatsDTO;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public final class LogPipelineStats {
+
+    private LogPipelineStats() {
+    }
+
+    public static List<LogPipelineStatsDTO> collect() {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext loggerContext)) {
+            return Collections.emptyList();
+        }
+        Map<RingBufferAsyncAppender, Boolean> asyncAppenders = new IdentityHashMap<>();
+        Map<BulkShippingAppender, Boolean> shippingAppenders = new IdentityHashMap<>();
+        for (Logger logger : loggerContext.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+            while (iterator.hasNext()) {
+                Appender<ILoggingEvent> appender = iterator.next();
+                if (appender instanceof RingBufferAsyncAppender asyncAppender) {
+                    asyncAppenders.put(asyncAppender, Boolean.TRUE);
+                    Iterator<Appender<ILoggingEvent>> attached = asyncAppender.iteratorForAppenders();
+                    while (attached.hasNext()) {
+                        if (attached.next() instanceof BulkShippingAppender shippingAppender) {
+                            shippingAppenders.put(shippingAppender, Boolean.TRUE);
+                        }
+                    }
+                } else if (appender instanceof BulkShippingAppender shippingAppender) {
+                    shippingAppenders.put(shippingAppender, Boolean.TRUE);
+                }
+            }
+        }
+        List<LogPipelineStatsDTO> stats = new ArrayList<>();
+        for (RingBufferAsyncAppender asyncAppender : asyncAppenders.keySet()) {
+            stats.add(LogPipelineStatsDTO.builder()
+                    .appender(asyncAppender.getName())
+                    .overflowPolicy(asyncAppender.getOverflowPolicy().name())
+                    .capacity(asyncAppender.getCapacity())
+                    .queueDepth(asyncAppender.getQueueDepth())
+                    .enqueuedCount(asyncAppender.getEnqueuedCount())
+                    .droppedCount(asyncAppender.getDroppedCount())
+                    .blockedCount(asyncAppender.getBlockedCount())
+                    .build());
+        }
+        for (BulkShippingAppender shippingAppender : shippingAppenders.keySet()) {
+            stats.add(LogPipelineStatsDTO.builder()
+                    .appender(shippingAppender.getName())
+                    .capacity(shippingAppender.getCapacity())
+                    .queueDepth(shippingAppender.getQueueDepth())
+                    .enqueuedCount(shippingAppender.getEnqueuedCount())
+                    .droppedCount(shippingAppender.getDroppedCount())
+                    .shippedCount(shippingAppender.getShippedCount())
+                    .spilledCount(shippingAppender.getSpilledCount())
+                    .failedBatchCount(shippingAppender.getFailedBatchCount())
+                    .build());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,19 @@
+package com.elk.logging;
+
+public enum OverflowPolicy {
+
+    /**
+     * Wait until the worker frees a slot.
+     */
+    BLOCK,
+
+    /**
+     * Drop TRACE/DEBUG/INFO events, wait for WARN and ERROR.
+     */
+    DROP_INFO,
+
+    /**
+     * Evict the oldest queued event to make room for the new one.
+     */
+    DROP_OLDEST
+}
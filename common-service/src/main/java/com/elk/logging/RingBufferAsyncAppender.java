@@ -0,0 +1,249 @@
+package com.elk.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands events to the attached appenders from a single background thread through a bounded lock-free ring buffer,
+ * so formatting and I/O stay off the request thread. MDC, message arguments and thread name are captured before
+ * the event is queued. What happens when the buffer is full is decided by {@link OverflowPolicy}.
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_MAX_FLUSH_TIME_MS = 1000;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong blockedCount = new AtomicLong();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_INFO;
+    private boolean includeCallerData;
+    private int maxFlushTimeMs = DEFAULT_MAX_FLUSH_TIME_MS;
+
+    private BoundedRingBuffer<ILoggingEvent> buffer;
+    private Thread worker;
+    private volatile boolean workerParked;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to [" + name + "].");
+            return;
+        }
+        if (bufferSize < 2) {
+            addError("Invalid bufferSize [" + bufferSize + "] for [" + name + "].");
+            return;
+        }
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+        buffer = new BoundedRingBuffer<>(capacity);
+        worker = new Thread(this::drain, "log-async-" + name);
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+        addInfo("Started [" + name + "] with capacity " + capacity + " and overflow policy " + overflowPolicy + ".");
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTimeMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Max flush time reached, " + buffer.size() + " events of [" + name + "] were not written.");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (buffer.offer(event)) {
+            enqueued();
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                put(event);
+                break;
+            case DROP_INFO:
+                if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+                    put(event);
+                } else {
+                    droppedCount.incrementAndGet();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        droppedCount.incrementAndGet();
+                    }
+                }
+                enqueued();
+                break;
+        }
+    }
+
+    private void put(ILoggingEvent event) {
+        blockedCount.incrementAndGet();
+        while (!buffer.offer(event)) {
+            if (!isStarted()) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+        enqueued();
+    }
+
+    private void enqueued() {
+        enqueuedCount.incrementAndGet();
+        if (workerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void drain() {
+        while (isStarted()) {
+            ILoggingEvent event = buffer.poll();
+            if (event != null) {
+                dispatch(event);
+                continue;
+            }
+            workerParked = true;
+            if (buffer.isEmpty() && isStarted()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            workerParked = false;
+        }
+        long flushDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxFlushTimeMs);
+        ILoggingEvent event;
+        while (System.nanoTime() < flushDeadline && (event = buffer.poll()) != null) {
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(ILoggingEvent event) {
+        try {
+            appenders.appendLoopOnAppenders(event);
+        } catch (RuntimeException ex) {
+            addError("Failed to dispatch event from [" + name + "].", ex);
+        }
+    }
+
+    public int getCapacity() {
+        return buffer == null ? 0 : buffer.capacity();
+    }
+
+    public int getQueueDepth() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public int getMaxFlushTimeMs() {
+        return maxFlushTimeMs;
+    }
+
+    public void setMaxFlushTimeMs(int maxFlushTimeMs) {
+        this.maxFlushTimeMs = maxFlushTimeMs;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
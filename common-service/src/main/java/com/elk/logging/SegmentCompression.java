@@ -0,0 +1,14 @@
+package com.elk.logging;
+
+public enum SegmentCompression {
+
+    /**
+     * Keep rolled segments as they are.
+     */
+    NONE,
+
+    /**
+     * Gzip rolled segments to {@code .gz} and delete the uncompressed file.
+     */
+    GZIP
+}
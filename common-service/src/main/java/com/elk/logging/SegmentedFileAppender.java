@@ -0,0 +1,429 @@
+package com.elk.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.FileSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File appender that writes through a direct buffer into a {@link FileChannel} and flushes it every
+ * {@code flushIntervalMs} or when the buffer is full. When a segment reaches {@code maxFileSize} or the day
+ * changes, the active file is renamed to {@code <file>-<yyyy-MM-dd>.<index>.log} and a new one is opened; nothing
+ * else happens on the writing thread. Compression of rolled segments and the {@code maxHistory} /
+ * {@code totalSizeCap} cleanup run on a background thread, which also picks up segments left uncompressed by a
+ * previous run. Events still in the buffer when the process dies are lost.
+ */
+public class SegmentedFileAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Encoder<ILoggingEvent> encoder;
+    private String file;
+    private FileSize maxFileSize = FileSize.valueOf("64MB");
+    private FileSize bufferSize = FileSize.valueOf("256KB");
+    private int flushIntervalMs = 1000;
+    private SegmentCompression compression = SegmentCompression.GZIP;
+    private int compressionLevel = 6;
+    private int maxHistory = 30;
+    private FileSize totalSizeCap;
+    private int maxFlushTimeMs = 5000;
+
+    private Path activePath;
+    private String segmentPrefix;
+    private ZoneId zone;
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private long segmentSize;
+    private LocalDate segmentDate;
+    private long nextDayMillis;
+    private int nextIndex;
+    private ScheduledExecutorService flusher;
+    private ExecutorService archiver;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (encoder == null || file == null) {
+            addError("No encoder or file set for [" + name + "].");
+            return;
+        }
+        activePath = Paths.get(file).toAbsolutePath();
+        segmentPrefix = activePath.getFileName() + "-";
+        zone = ZoneId.systemDefault();
+        buffer = ByteBuffer.allocateDirect((int) bufferSize.getSize());
+        try {
+            Files.createDirectories(activePath.getParent());
+            LocalDate date = Files.exists(activePath)
+                    ? LocalDate.ofInstant(Files.getLastModifiedTime(activePath).toInstant(), zone)
+                    : LocalDate.now(zone);
+            openSegment(date);
+        } catch (IOException ex) {
+            addError("Could not open [" + activePath + "] for [" + name + "].", ex);
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(daemon("log-flush-" + name));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        archiver = Executors.newSingleThreadExecutor(daemon("log-archive-" + name));
+        archiver.execute(this::archivePending);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        flusher.shutdownNow();
+        lock.lock();
+        try {
+            flushBuffer();
+            channel.close();
+        } catch (IOException ex) {
+            addError("Could not close [" + activePath + "].", ex);
+        } finally {
+            lock.unlock();
+        }
+        archiver.shutdown();
+        try {
+            if (!archiver.awaitTermination(maxFlushTimeMs, TimeUnit.MILLISECONDS)) {
+                addWarn("Max flush time reached, rolled segments of [" + name + "] are compressed on next start.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        byte[] bytes = encoder.encode(event);
+        lock.lock();
+        try {
+            if (event.getTimeStamp() >= nextDayMillis
+                    || (segmentSize > 0 && segmentSize + bytes.length > maxFileSize.getSize())) {
+                rollover(LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimeStamp()), zone));
+            }
+            write(bytes);
+        } catch (IOException ex) {
+            addError("Could not write to [" + activePath + "].", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            flushBuffer();
+            if (bytes.length > buffer.capacity()) {
+                ByteBuffer source = ByteBuffer.wrap(bytes);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                segmentSize += bytes.length;
+                return;
+            }
+        }
+        buffer.put(bytes);
+        segmentSize += bytes.length;
+    }
+
+    private void flush() {
+        lock.lock();
+        try {
+            if (isStarted()) {
+                flushBuffer();
+            }
+        } catch (IOException ex) {
+            addError("Could not flush [" + activePath + "].", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void rollover(LocalDate date) throws IOException {
+        flushBuffer();
+        channel.close();
+        if (segmentSize > 0) {
+            Path rolled = activePath.resolveSibling(segmentPrefix + segmentDate + "." + nextIndex + SEGMENT_SUFFIX);
+            try {
+                Files.move(activePath, rolled, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(activePath, rolled);
+            }
+            archiver.execute(() -> archive(rolled));
+        }
+        openSegment(date);
+    }
+
+    private void openSegment(LocalDate date) throws IOException {
+        channel = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+        if (!date.equals(segmentDate)) {
+            segmentDate = date;
+            nextIndex = nextIndex(date);
+            nextDayMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        } else {
+            nextIndex++;
+        }
+    }
+
+    private int nextIndex(LocalDate date) throws IOException {
+        int index = 0;
+        for (Segment segment : listSegments()) {
+            if (segment.date.equals(date)) {
+                index = Math.max(index, segment.index + 1);
+            }
+        }
+        return index;
+    }
+
+    private void archivePending() {
+        try {
+            for (Segment segment : listSegments()) {
+                if (!segment.compressed) {
+                    compress(segment.path);
+                }
+            }
+        } catch (IOException ex) {
+            addError("Could not compress rolled segments of [" + name + "].", ex);
+        }
+        cleanup();
+    }
+
+    private void archive(Path rolled) {
+        try {
+            compress(rolled);
+        } catch (IOException ex) {
+            addError("Could not compress [" + rolled + "].", ex);
+        }
+        cleanup();
+    }
+
+    private void compress(Path segment) throws IOException {
+        if (compression == SegmentCompression.NONE || !Files.exists(segment)) {
+            return;
+        }
+        Path target = segment.resolveSibling(segment.getFileName() + GZIP_SUFFIX);
+        Path temporary = segment.resolveSibling(segment.getFileName() + GZIP_SUFFIX + ".tmp");
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new LevelGzipOutputStream(Files.newOutputStream(temporary), compressionLevel)) {
+            in.transferTo(out);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(segment);
+    }
+
+    private void cleanup() {
+        try {
+            List<Segment> segments = listSegments();
+            segments.sort(Comparator.comparing((Segment segment) -> segment.date)
+                    .thenComparingInt(segment -> segment.index).reversed());
+            LocalDate oldestKept = LocalDate.now(zone).minusDays(maxHistory);
+            long totalSize = 0;
+            for (Segment segment : segments) {
+                totalSize += Files.size(segment.path);
+                boolean expired = maxHistory > 0 && segment.date.isBefore(oldestKept);
+                boolean overCap = totalSizeCap != null && totalSize > totalSizeCap.getSize();
+                if (expired || overCap) {
+                    Files.deleteIfExists(segment.path);
+                }
+            }
+        } catch (IOException ex) {
+            addError("Could not clean up rolled segments of [" + name + "].", ex);
+        }
+    }
+
+    private List<Segment> listSegments() throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(activePath.getParent(), segmentPrefix + "*")) {
+            for (Path path : paths) {
+                Segment segment = Segment.parse(path, segmentPrefix);
+                if (segment != null) {
+                    segments.add(segment);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static ThreadFactory daemon(String threadName) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public Encoder<ILoggingEvent> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public FileSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(FileSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public FileSize getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(FileSize bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(int flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public SegmentCompression getCompression() {
+        return compression;
+    }
+
+    public void setCompression(SegmentCompression compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getMaxHistory() {
+        return maxHistory;
+    }
+
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+
+    public FileSize getTotalSizeCap() {
+        return totalSizeCap;
+    }
+
+    public void setTotalSizeCap(FileSize totalSizeCap) {
+        this.totalSizeCap = totalSizeCap;
+    }
+
+    public int getMaxFlushTimeMs() {
+        return maxFlushTimeMs;
+    }
+
+    public void setMaxFlushTimeMs(int maxFlushTimeMs) {
+        this.maxFlushTimeMs = maxFlushTimeMs;
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final LocalDate date;
+        private final int index;
+        private final boolean compressed;
+
+        private Segment(Path path, LocalDate date, int index, boolean compressed) {
+            this.path = path;
+            this.date = date;
+            this.index = index;
+            this.compressed = compressed;
+        }
+
+        /**
+         * Parses {@code <prefix><yyyy-MM-dd>.<index>.log[.gz]}, returns null for any other file.
+         */
+        private static Segment parse(Path path, String prefix) {
+            String fileName = path.getFileName().toString();
+            boolean compressed = fileName.endsWith(SEGMENT_SUFFIX + GZIP_SUFFIX);
+            String body = fileName.substring(prefix.length());
+            if (compressed) {
+                body = body.substring(0, body.length() - GZIP_SUFFIX.length());
+            }
+            if (!body.endsWith(SEGMENT_SUFFIX)) {
+                return null;
+            }
+            body = body.substring(0, body.length() - SEGMENT_SUFFIX.length());
+            int separator = body.lastIndexOf('.');
+            if (separator < 0) {
+                return null;
+            }
+            try {
+                return new Segment(path, LocalDate.parse(body.substring(0, separator)),
+                        Integer.parseInt(body.substring(separator + 1)), compressed);
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+
+        private LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.elk.logging;
+
+public enum ShippingFormat {
+
+    /**
+     * One JSON event per line, for a Logstash http input ({@code codec => json_lines}) or tcp input.
+     */
+    NDJSON,
+
+    /**
+     * Elasticsearch {@code _bulk} body: a {@code create} action line before every event.
+     */
+    ELASTICSEARCH_BULK
+}
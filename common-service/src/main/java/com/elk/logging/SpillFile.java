@@ -0,0 +1,107 @@
+package com.elk.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only file of NDJSON lines that could not be shipped. Lines are read back from the replay position, which
+ * only moves forward once a replayed batch has been accepted, and the file is truncated when everything has been
+ * replayed. Lines that would grow the file beyond {@code maxBytes} are not written. Only the shipper thread uses it.
+ */
+final class SpillFile implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final long maxBytes;
+    private long size;
+    private long replayPosition;
+
+    SpillFile(Path path, long maxBytes) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.maxBytes = maxBytes;
+        this.size = channel.size();
+    }
+
+    boolean hasPending() {
+        return size > replayPosition;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of lines written.
+     */
+    int append(List<byte[]> lines) throws IOException {
+        int written = 0;
+        for (byte[] line : lines) {
+            if (size + line.length > maxBytes) {
+                break;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                size += channel.write(buffer, size);
+            }
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Reads complete lines from the replay position, at most {@code maxLines} and {@code maxBytes}. A line longer
+     * than {@code maxBytes} can never be replayed and is skipped.
+     */
+    List<byte[]> read(int maxLines, int maxBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(maxBytes, size - replayPosition));
+        while (buffer.hasRemaining() && channel.read(buffer, replayPosition + buffer.position()) > 0) {
+            // keep reading until the buffer is full or the end of the file is reached
+        }
+        byte[] bytes = buffer.array();
+        List<byte[]> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < buffer.position() && lines.size() < maxLines; i++) {
+            if (bytes[i] == '\n') {
+                lines.add(Arrays.copyOfRange(bytes, start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (lines.isEmpty() && !buffer.hasRemaining()) {
+            skipTo(replayPosition + buffer.position());
+        }
+        return lines;
+    }
+
+    void commit(List<byte[]> lines) throws IOException {
+        long position = replayPosition;
+        for (byte[] line : lines) {
+            position += line.length;
+        }
+        skipTo(position);
+    }
+
+    private void skipTo(long position) throws IOException {
+        replayPosition = position;
+        if (replayPosition >= size) {
+            channel.truncate(0);
+            size = 0;
+            replayPosition = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
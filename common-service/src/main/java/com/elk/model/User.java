@@ -10,18 +10,27 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Data
 @Builder
-@Table(name = "user")
+@Table(name = "user", indexes = {
+        @Index(name = "idx_user_department_id_id", columnList = "departmentId, id"),
+        @Index(name = "idx_user_gender_id", columnList = "gender, id"),
+        @Index(name = "idx_user_department_id_gender_id", columnList = "departmentId, gender, id"),
+        @Index(name = "idx_user_age", columnList = "age")
+})
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
@@ -29,6 +38,9 @@ public class User {
     private int age;
     private Long departmentId;
 
+    @Version
+    private long version;
+
     public static User buildEntity(UserDTO userDTO) {
         User user = null;
         if (userDTO != null) {
@@ -0,0 +1,115 @@
+package com.elk.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Trace state of the current request, kept in the MDC so it shows up in every log line and follows the
+ * request onto executor threads with the rest of the MDC. Accepts a W3C {@code traceparent} and the legacy
+ * {@code eventTraceId} header; a request without either starts a new trace.
+ */
+@Slf4j
+public final class TraceContext {
+
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String EVENT_TRACE_ID_HEADER = "eventTraceId";
+
+    public static final String EVENT_TRACE_ID = "eventTraceId";
+    public static final String TRACE_ID = "traceId";
+    public static final String SPAN_ID = "spanId";
+    public static final String PARENT_SPAN_ID = "parentSpanId";
+    public static final String TRACE_FLAGS = "traceFlags";
+    public static final String DURATION_MS = "durationMs";
+
+    private static final String SAMPLED_FLAGS = "01";
+    private static final String START_NANOS_ATTRIBUTE = TraceContext.class.getName() + ".startNanos";
+
+    private TraceContext() {
+    }
+
+    public static void startServerSpan(HttpServletRequest request) {
+        clear();
+        String traceparent = request.getHeader(TRACEPARENT_HEADER);
+        String traceId;
+        String parentSpanId = null;
+        String traceFlags = SAMPLED_FLAGS;
+        if (isValidTraceparent(traceparent)) {
+            traceId = traceparent.substring(3, 35);
+            parentSpanId = traceparent.substring(36, 52);
+            traceFlags = traceparent.substring(53, 55);
+        } else {
+            traceId = TraceIds.newTraceId();
+        }
+        String eventTraceId = request.getHeader(EVENT_TRACE_ID_HEADER);
+        MDC.put(EVENT_TRACE_ID, StringUtils.hasLength(eventTraceId) ? eventTraceId : traceId);
+        MDC.put(TRACE_ID, traceId);
+        MDC.put(SPAN_ID, TraceIds.newSpanId());
+        if (parentSpanId != null) {
+            MDC.put(PARENT_SPAN_ID, parentSpanId);
+        }
+        MDC.put(TRACE_FLAGS, traceFlags);
+        request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+    }
+
+    public static void endServerSpan(HttpServletRequest request, HttpServletResponse response) {
+        Object startNanos = request.getAttribute(START_NANOS_ATTRIBUTE);
+        if (startNanos instanceof Long) {
+            long durationMs = (System.nanoTime() - (Long) startNanos) / 1_000_000;
+            MDC.put(DURATION_MS, String.valueOf(durationMs));
+            log.info("{} {} completed with status {} in {} ms.", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), durationMs);
+        }
+        clear();
+    }
+
+    public static void clear() {
+        MDC.remove(EVENT_TRACE_ID);
+        MDC.remove(TRACE_ID);
+        MDC.remove(SPAN_ID);
+        MDC.remove(PARENT_SPAN_ID);
+        MDC.remove(TRACE_FLAGS);
+        MDC.remove(DURATION_MS);
+    }
+
+    /**
+     * {@code traceparent} value announcing {@code spanId} as the parent of the downstream span, or null when no
+     * trace is active on this thread.
+     */
+    public static String traceparent(String spanId) {
+        String traceId = MDC.get(TRACE_ID);
+        if (traceId == null) {
+            return null;
+        }
+        String traceFlags = MDC.get(TRACE_FLAGS);
+        return "00-" + traceId + "-" + spanId + "-" + (traceFlags != null ? traceFlags : SAMPLED_FLAGS);
+    }
+
+    static boolean isValidTraceparent(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55) {
+            return false;
+        }
+        String version = traceparent.substring(0, 2);
+        if ("ff".equals(version) || (version.equals("00") && traceparent.length() != 55)
+                || (traceparent.length() > 55 && traceparent.charAt(55) != '-')) {
+            return false;
+        }
+        return traceparent.charAt(2) == '-' && traceparent.charAt(35) == '-' && traceparent.charAt(52) == '-'
+                && isHex(traceparent, 0, 2) && isHex(traceparent, 53, 2)
+                && TraceIds.isValidId(traceparent, 3, TraceIds.TRACE_ID_LENGTH)
+                && TraceIds.isValidId(traceparent, 36, TraceIds.SPAN_ID_LENGTH);
+    }
+
+    private static boolean isHex(String value, int start, int length) {
+        for (int i = start; i < start + length; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
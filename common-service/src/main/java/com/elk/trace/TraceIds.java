@@ -0,0 +1,62 @@
+package com.elk.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace-context compatible ids: 128-bit trace ids and 64-bit span ids as lowercase hex, drawn from
+ * {@link ThreadLocalRandom} so id generation never contends on or blocks for an entropy source.
+ */
+public final class TraceIds {
+
+    public static final int TRACE_ID_LENGTH = 32;
+    public static final int SPAN_ID_LENGTH = 16;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIds() {
+    }
+
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0);
+        char[] chars = new char[TRACE_ID_LENGTH];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, SPAN_ID_LENGTH);
+        return new String(chars);
+    }
+
+    public static String newSpanId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0);
+        char[] chars = new char[SPAN_ID_LENGTH];
+        writeHex(id, chars, 0);
+        return new String(chars);
+    }
+
+    static boolean isValidId(CharSequence value, int start, int length) {
+        boolean nonZero = false;
+        for (int i = start; i < start + length; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+            nonZero |= c != '0';
+        }
+        return nonZero;
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        for (int i = offset + SPAN_ID_LENGTH - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) value & 0xf];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.elk.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Opens a client span for every outbound call: sends {@code traceparent} and the legacy {@code eventTraceId}
+ * header, and logs the call with its span id and duration in the MDC.
+ */
+@Slf4j
+public class TracingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String CLIENT_SPAN_ID = "clientSpanId";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String clientSpanId = TraceIds.newSpanId();
+        HttpHeaders headers = request.getHeaders();
+        String traceparent = TraceContext.traceparent(clientSpanId);
+        if (traceparent != null) {
+            headers.set(TraceContext.TRACEPARENT_HEADER, traceparent);
+        }
+        String eventTraceId = MDC.get(TraceContext.EVENT_TRACE_ID);
+        if (eventTraceId != null) {
+            headers.set(TraceContext.EVENT_TRACE_ID_HEADER, eventTraceId);
+        }
+        long startNanos = System.nanoTime();
+        String outcome = "failed";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = String.valueOf(response.getRawStatusCode());
+            return response;
+        } finally {
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            MDC.put(CLIENT_SPAN_ID, clientSpanId);
+            MDC.put(TraceContext.DURATION_MS, String.valueOf(durationMs));
+            log.info("Outbound {} {} completed with status {} in {} ms.", request.getMethod(), request.getURI(),
+                    outcome, durationMs);
+            MDC.remove(CLIENT_SPAN_ID);
+            MDC.remove(TraceContext.DURATION_MS);
+        }
+    }
+}
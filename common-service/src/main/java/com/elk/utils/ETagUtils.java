@@ -0,0 +1,94 @@
+package com.elk.utils;
+
+import com.elk.dto.CursorPageDTO;
+import com.elk.dto.DepartmentDTO;
+import com.elk.dto.UserDTO;
+
+import java.util.Collection;
+
+/**
+ * ETags derived from ids and versions, so a response can be validated without serializing it. Both services use the
+ * same functions, which lets a client rebuild the tag of a representation it already holds. List tags are weak
+ * because large lists are gzip-compressed and Tomcat does not compress responses carrying a strong ETag.
+ */
+public class ETagUtils {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long ABSENT = -1L;
+
+    private ETagUtils() {
+    }
+
+    public static String departmentTag(DepartmentDTO departmentDTO) {
+        return toTag(hash(FNV_OFFSET_BASIS, departmentDTO));
+    }
+
+    public static String departmentsTag(Collection<DepartmentDTO> departmentDTOList) {
+        long hash = FNV_OFFSET_BASIS;
+        for (DepartmentDTO departmentDTO : departmentDTOList) {
+            hash = hash(hash, departmentDTO);
+        }
+        return toWeakTag(hash);
+    }
+
+    public static String departmentPageTag(CursorPageDTO<DepartmentDTO> departmentPage) {
+        long hash = FNV_OFFSET_BASIS;
+        for (DepartmentDTO departmentDTO : departmentPage.getItems()) {
+            hash = hash(hash, departmentDTO);
+        }
+        return toWeakTag(hash(hash, departmentPage.getNextCursor()));
+    }
+
+    public static String userTag(UserDTO userDTO) {
+        return toTag(hash(FNV_OFFSET_BASIS, userDTO));
+    }
+
+    public static String userPageTag(CursorPageDTO<UserDTO> userPage) {
+        long hash = FNV_OFFSET_BASIS;
+        for (UserDTO userDTO : userPage.getItems()) {
+            hash = hash(hash, userDTO);
+        }
+        return toWeakTag(hash(hash, userPage.getNextCursor()));
+    }
+
+    private static long hash(long hash, UserDTO userDTO) {
+        hash = hash(hash, userDTO.getId());
+        hash = hash(hash, userDTO.getVersion());
+        return hash(hash, userDTO.getDepartment());
+    }
+
+    private static long hash(long hash, DepartmentDTO departmentDTO) {
+        if (departmentDTO == null) {
+            return hash(hash, ABSENT);
+        }
+        hash = hash(hash, departmentDTO.getId());
+        return hash(hash, departmentDTO.getVersion());
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return hash(hash, ABSENT);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, Long value) {
+        long bits = value == null ? ABSENT : value;
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((bits >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String toTag(long hash) {
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static String toWeakTag(long hash) {
+        return "W/" + toTag(hash);
+    }
+}
@@ -1,5 +1,7 @@
 package com.elk.utils;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -13,4 +15,20 @@ public class ResponseUtils {
         HttpStatus status = HttpStatus.OK;
         return new ResponseEntity<>(body, status);
     }
+
+    public static <E> ResponseEntity<Object> acceptedResponseWithBody(E body) {
+        return new ResponseEntity<>(body, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * The tag identifies the data, not the format, so the response varies by {@code Accept}: a cache must not
+     * revalidate a stored Smile body for a caller that asked for JSON.
+     */
+    public static <E> ResponseEntity<Object> successResponseWithETag(E body, String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
 }
\ No newline at end of file
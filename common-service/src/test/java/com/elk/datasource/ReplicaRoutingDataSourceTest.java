@@ -0,0 +1,203 @@
+package com.elk.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through {@link LazyConnectionDataSourceProxy} and a {@link DataSourceTransactionManager} as the services do,
+ * against one in-memory H2 database per pool. Each database knows its pool name, and the replicas report their lag
+ * from a {@code replica_status} table.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 1000;
+    private static final long CHECK_INTERVAL_MS = 20;
+    private static final long AWAIT_MS = 5000;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource primary;
+    private HikariDataSource replica0;
+    private HikariDataSource replica1;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @AfterEach
+    void tearDown() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        start(0);
+
+        String pool = readWriteTransaction.execute(status -> currentPool());
+
+        assertThat(pool).isEqualTo("primary");
+        assertThat(currentPool()).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsGoRoundRobinToTheReplicas() {
+        start(0);
+
+        assertThat(readOnlyPools(4)).containsExactlyInAnyOrder("replica-0", "replica-1");
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() {
+        start(0);
+
+        setLagSeconds(replica0, 5);
+        await(() -> !isHealthy("replica-0"));
+        assertThat(readOnlyPools(4)).containsOnly("replica-1");
+
+        setLagSeconds(replica0, 0);
+        await(() -> isHealthy("replica-0"));
+        assertThat(readOnlyPools(4)).containsExactlyInAnyOrder("replica-0", "replica-1");
+    }
+
+    @Test
+    void stoppedReplicationTakesTheReplicaOutOfRotation() {
+        start(0);
+
+        new JdbcTemplate(replica1).update("delete from replica_status");
+        await(() -> !isHealthy("replica-1"));
+
+        assertThat(readOnlyPools(4)).containsOnly("replica-0");
+    }
+
+    @Test
+    void failedReplicaFailsOverToTheNextReplica() {
+        start(0);
+
+        replica0.close();
+
+        assertThat(readOnlyPools(4)).containsOnly("replica-1");
+        assertThat(isHealthy("replica-0")).isFalse();
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenNoReplicaIsUsable() {
+        start(0);
+
+        replica0.close();
+        replica1.close();
+
+        assertThat(readOnlyPools(2)).containsOnly("primary");
+        assertThat(meterRegistry.get("datasource.routing.connections")
+                .tags("pool", "primary", "reason", "fallback")
+                .functionCounter()
+                .count()).isEqualTo(2);
+    }
+
+    @Test
+    void readsGoToThePrimaryAfterAWriteCommits() {
+        start(60_000);
+
+        assertThat(readOnlyPools(1)).allMatch(pool -> pool.startsWith("replica-"));
+
+        readWriteTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("update pool set name = name"));
+
+        assertThat(readOnlyPools(2)).containsOnly("primary");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReadsToThePrimary() {
+        start(60_000);
+
+        readWriteTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("update pool set name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyPools(2)).containsExactlyInAnyOrder("replica-0", "replica-1");
+    }
+
+    private void start(long primaryAfterWriteMs) {
+        primary = pool("primary");
+        replica0 = pool("replica-0");
+        replica1 = pool("replica-1");
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1), MAX_LAG_MS,
+                CHECK_INTERVAL_MS, primaryAfterWriteMs, "select seconds_behind_source from replica_status",
+                "seconds_behind_source");
+        routingDataSource.bindTo(meterRegistry);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        await(() -> isHealthy("replica-0") && isHealthy("replica-1"));
+    }
+
+    private HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table pool (name varchar(32))");
+        template.update("insert into pool values (?)", name);
+        template.execute("create table replica_status (seconds_behind_source bigint)");
+        template.update("insert into replica_status values (0)");
+        return dataSource;
+    }
+
+    private String currentPool() {
+        return jdbcTemplate.queryForObject("select name from pool", String.class);
+    }
+
+    private Set<String> readOnlyPools(int reads) {
+        Set<String> pools = new HashSet<>();
+        for (int i = 0; i < reads; i++) {
+            pools.add(readOnlyTransaction.execute(status -> currentPool()));
+        }
+        return pools;
+    }
+
+    private void setLagSeconds(HikariDataSource replica, long lagSeconds) {
+        new JdbcTemplate(replica).update("update replica_status set seconds_behind_source = ?", lagSeconds);
+    }
+
+    private boolean isHealthy(String pool) {
+        return meterRegistry.get("datasource.replica.healthy").tag("pool", pool).gauge().value() == 1;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within %d ms", AWAIT_MS)
+                    .isLessThan(deadline);
+            try {
+                Thread.sleep(CHECK_INTERVAL_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.elk.cache;
+
+import com.elk.dto.CacheStatsDTO;
+import com.elk.dto.CursorPageDTO;
+import com.elk.dto.DepartmentDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of the department table for the read paths. Entries are keyed by id, list pages by
+ * {@code limit:afterId}. Writes invalidate after the surrounding transaction commits. A load that read the table
+ * before that commit can still finish after the invalidation, so every invalidation bumps a generation and a load
+ * that saw the generation change takes its result back out of the cache instead of serving it until expiry.
+ */
+@Component
+public class DepartmentEntityCache {
+
+    private final Cache<Long, DepartmentDTO> departments;
+    private final Cache<String, CursorPageDTO<DepartmentDTO>> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public DepartmentEntityCache(MeterRegistry meterRegistry,
+                                 @Value("${department.cache.max-size:10000}") long maxSize,
+                                 @Value("${department.cache.ttl-seconds:3600}") long ttlSeconds,
+                                 @Value("${department.page-cache.max-size:1000}") long pageMaxSize,
+                                 @Value("${department.page-cache.ttl-seconds:300}") long pageTtlSeconds) {
+        this.departments = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pageMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(pageTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, departments, "departments");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "departmentPages");
+    }
+
+    public DepartmentDTO getDepartment(Long departmentId, Function<Long, DepartmentDTO> loader) {
+        long loadGeneration = generation.get();
+        DepartmentDTO departmentDTO = departments.get(departmentId, loader);
+        if (departmentDTO != null && generation.get() != loadGeneration) {
+            departments.asMap().remove(departmentId, departmentDTO);
+        }
+        return departmentDTO;
+    }
+
+    public Map<Long, DepartmentDTO> getDepartments(Set<Long> departmentIds,
+                                                   Function<Set<Long>, Map<Long, DepartmentDTO>> loader) {
+        long loadGeneration = generation.get();
+        Map<Long, DepartmentDTO> departmentMap = departments.getAll(departmentIds, missingIds -> {
+            Set<Long> ids = new TreeSet<>();
+            missingIds.forEach(ids::add);
+            return loader.apply(ids);
+        });
+        if (generation.get() != loadGeneration) {
+            departmentMap.forEach(departments.asMap()::remove);
+        }
+        return departmentMap;
+    }
+
+    public CursorPageDTO<DepartmentDTO> getPage(int limit, long afterId, Supplier<CursorPageDTO<DepartmentDTO>> loader) {
+        long loadGeneration = generation.get();
+        String key = limit + ":" + afterId;
+        CursorPageDTO<DepartmentDTO> page = pages.get(key, pageKey -> loader.get());
+        if (page != null && generation.get() != loadGeneration) {
+            pages.asMap().remove(key, page);
+        }
+        return page;
+    }
+
+    public void invalidateAfterCommit(Collection<Long> departmentIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(departmentIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(departmentIds);
+            }
+        });
+    }
+
+    public CacheStatsDTO getStats() {
+        return buildStats(departments);
+    }
+
+    public CacheStatsDTO getPageStats() {
+        return buildStats(pages);
+    }
+
+    private void invalidate(Collection<Long> departmentIds) {
+        generation.incrementAndGet();
+        departments.invalidateAll(departmentIds);
+        pages.invalidateAll();
+    }
+
+    private static CacheStatsDTO buildStats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return CacheStatsDTO.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .loadSuccessCount(stats.loadSuccessCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadPenaltyMs(stats.averageLoadPenalty() / 1_000_000d)
+                .build();
+    }
+}
@@ -1,13 +1,13 @@
 package com.elk.config;
 
-import org.slf4j.MDC;
+import com.elk.context.RequestDeadline;
+import com.elk.exceptions.DeadlineExceededException;
+import com.elk.trace.TraceContext;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.UUID;
 
 @Component
 public class LogInterceptor implements HandlerInterceptor {
@@ -15,11 +15,17 @@ public class LogInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
 
-        String tracingId = request.getHeader("eventTraceId");
-        if (!StringUtils.hasLength(tracingId)) {
-            tracingId = UUID.randomUUID().toString();
+        // Rejected before the span starts: afterCompletion is skipped when preHandle throws, so nothing would
+        // clear the trace context and deadline from this thread.
+        Long budgetMs = RequestDeadline.parseBudget(request.getHeader(RequestDeadline.HEADER));
+        if (budgetMs != null && budgetMs <= 0) {
+            throw new DeadlineExceededException("Request budget exhausted before processing.");
+        }
+
+        TraceContext.startServerSpan(request);
+        if (budgetMs != null) {
+            RequestDeadline.start(budgetMs);
         }
-        MDC.put("eventTraceId", tracingId);
 
         return HandlerInterceptor.super.preHandle(request, response, handler);
     }
@@ -27,7 +33,8 @@ public class LogInterceptor implements HandlerInterceptor {
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex)
             throws Exception {
-        MDC.remove("eventTraceId");
+        TraceContext.endServerSpan(request, response);
+        RequestDeadline.clear();
         HandlerInterceptor.super.afterCompletion(request, response, handler, ex);
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.elk.controller;
 
+import com.elk.dto.BatchResultDTO;
+import com.elk.dto.CursorPageDTO;
 import com.elk.dto.DepartmentDTO;
 import com.elk.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
@@ -10,11 +12,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
 
+import static com.elk.utils.ETagUtils.departmentPageTag;
+import static com.elk.utils.ETagUtils.departmentTag;
+import static com.elk.utils.ETagUtils.departmentsTag;
 import static com.elk.utils.ResponseUtils.successResponseWithBody;
+import static com.elk.utils.ResponseUtils.successResponseWithETag;
 
 @RestController
 @RequiredArgsConstructor
@@ -34,6 +41,12 @@ public class DepartmentController {
         return successResponseWithBody(departmentDTO);
     }
 
+    @PostMapping("/department/batch")
+    public ResponseEntity<Object> upsertDepartments(@RequestBody List<DepartmentDTO> departmentDTOList) {
+        BatchResultDTO batchResultDTO = departmentService.upsertDepartments(departmentDTOList);
+        return successResponseWithBody(batchResultDTO);
+    }
+
     @PutMapping("/department/{departmentId}")
     public ResponseEntity<Object> updateDepartment(@PathVariable("departmentId") Long departmentId,
                                                    @RequestBody DepartmentDTO departmentDTO) {
@@ -42,14 +55,21 @@ public class DepartmentController {
     }
 
     @GetMapping("/department")
-    public ResponseEntity<Object> getDepartments() {
-        List<DepartmentDTO> departmentDTOList = departmentService.getDepartments();
-        return successResponseWithBody(departmentDTOList);
+    public ResponseEntity<Object> getDepartments(@RequestParam(value = "limit", required = false) Integer limit,
+                                                 @RequestParam(value = "after", required = false) String after) {
+        CursorPageDTO<DepartmentDTO> departmentPage = departmentService.getDepartments(limit, after);
+        return successResponseWithETag(departmentPage, departmentPageTag(departmentPage));
+    }
+
+    @GetMapping(value = "/department", params = "ids")
+    public ResponseEntity<Object> getDepartmentsByIds(@RequestParam("ids") List<Long> departmentIds) {
+        List<DepartmentDTO> departmentDTOList = departmentService.getDepartmentsByIds(departmentIds);
+        return successResponseWithETag(departmentDTOList, departmentsTag(departmentDTOList));
     }
 
     @GetMapping("/department/{departmentId}")
     public ResponseEntity<Object> getDepartments(@PathVariable("departmentId") Long departmentId) {
         DepartmentDTO departmentDTO = departmentService.getDepartmentById(departmentId);
-        return successResponseWithBody(departmentDTO);
+        return successResponseWithETag(departmentDTO, departmentTag(departmentDTO));
     }
 }
@@ -0,0 +1,34 @@
+package com.elk.controller;
+
+import com.elk.cache.DepartmentEntityCache;
+import com.elk.logging.LogPipelineStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.elk.utils.ResponseUtils.successResponseWithBody;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+
+    private final DepartmentEntityCache departmentEntityCache;
+
+    @GetMapping("/department-cache")
+    public ResponseEntity<Object> getDepartmentCacheStats() {
+        return successResponseWithBody(departmentEntityCache.getStats());
+    }
+
+    @GetMapping("/department-page-cache")
+    public ResponseEntity<Object> getDepartmentPageCacheStats() {
+        return successResponseWithBody(departmentEntityCache.getPageStats());
+    }
+
+    @GetMapping("/logging")
+    public ResponseEntity<Object> getLoggingStats() {
+        return successResponseWithBody(LogPipelineStats.collect());
+    }
+}
@@ -1,9 +1,26 @@
 package com.elk.repositories;
 
+import com.elk.dto.DepartmentDTO;
 import com.elk.model.Department;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
-}
\ No newline at end of file
+
+    @Query("select new com.elk.dto.DepartmentDTO(d.id, d.departmentName, d.version) " +
+            "from Department d where d.id > :afterId order by d.id asc")
+    List<DepartmentDTO> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update Department d set d.departmentName = :departmentName, d.version = d.version + 1 " +
+            "where d.id = :id and (:version is null or d.version = :version)")
+    int updateIfVersionMatches(@Param("id") Long id, @Param("departmentName") String departmentName,
+                               @Param("version") Long version);
+}
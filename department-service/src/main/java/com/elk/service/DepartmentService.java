@@ -1,5 +1,7 @@
 package com.elk.service;
 
+import com.elk.dto.BatchResultDTO;
+import com.elk.dto.CursorPageDTO;
 import com.elk.dto.DepartmentDTO;
 
 import java.util.List;
@@ -10,7 +12,11 @@ public interface DepartmentService {
 
     DepartmentDTO updateDepartment(Long departmentId, DepartmentDTO departmentDTO);
 
-    List<DepartmentDTO> getDepartments();
+    BatchResultDTO upsertDepartments(List<DepartmentDTO> departmentDTOList);
+
+    CursorPageDTO<DepartmentDTO> getDepartments(Integer limit, String after);
+
+    List<DepartmentDTO> getDepartmentsByIds(List<Long> departmentIds);
 
     DepartmentDTO getDepartmentById(Long departmentId);
 }
@@ -1,6 +1,11 @@
 package com.elk.service.impl;
 
+import com.elk.cache.DepartmentEntityCache;
+import com.elk.dto.BatchItemResultDTO;
+import com.elk.dto.BatchResultDTO;
+import com.elk.dto.CursorPageDTO;
 import com.elk.dto.DepartmentDTO;
+import com.elk.exceptions.ConflictException;
 import com.elk.exceptions.InternalServerException;
 import com.elk.exceptions.InvalidRequestException;
 import com.elk.exceptions.ResourceNotFoundException;
@@ -9,12 +14,27 @@ import com.elk.repositories.DepartmentRepository;
 import com.elk.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.elk.utils.CursorUtils.MAX_LIMIT;
+import static com.elk.utils.CursorUtils.decode;
+import static com.elk.utils.CursorUtils.normalizeLimit;
 
 @Service
 @Transactional
@@ -23,6 +43,14 @@ import java.util.Optional;
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final DepartmentEntityCache departmentEntityCache;
+    private final EntityManager entityManager;
+
+    @Value("${batch.max-size:10000}")
+    int batchMaxSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int jdbcBatchSize;
 
     @Override
     public DepartmentDTO addDepartment(DepartmentDTO departmentDTO) {
@@ -30,11 +58,11 @@ public class DepartmentServiceImpl implements DepartmentService {
         try {
             Department department = Department.buildEntity(departmentDTO);
             departmentRepository.save(department);
+            departmentEntityCache.invalidateAfterCommit(List.of());
             log.info("End addDepartment method.");
             return DepartmentDTO.buildDTO(department);
         } catch (Exception ex) {
-            log.error("Exception while add department.", ex);
-            throw new InternalServerException("Exception while add department.");
+            throw new InternalServerException("Exception while add department.", ex);
         }
     }
 
@@ -42,40 +70,131 @@ public class DepartmentServiceImpl implements DepartmentService {
     public DepartmentDTO updateDepartment(Long departmentId, DepartmentDTO departmentDTO) {
         log.info("Invoke updateDepartment method.");
         validateUpdateRequest(departmentDTO, departmentId);
+        int updatedRows;
         try {
-            Department department = Department.buildEntity(departmentDTO);
-            department.setId(departmentId);
-            departmentRepository.save(department);
-            log.info("End updateDepartment method.");
-            return DepartmentDTO.buildDTO(department);
+            updatedRows = departmentRepository.updateIfVersionMatches(departmentId,
+                    departmentDTO.getDepartmentName(), departmentDTO.getVersion());
+        } catch (Exception ex) {
+            throw new InternalServerException("Exception while update department.", ex);
+        }
+        if (updatedRows == 0) {
+            throw updateFailure(departmentId, departmentDTO.getVersion());
+        }
+        departmentEntityCache.invalidateAfterCommit(List.of(departmentId));
+        log.info("End updateDepartment method.");
+        return DepartmentDTO.builder()
+                .id(departmentId)
+                .departmentName(departmentDTO.getDepartmentName())
+                .version(departmentDTO.getVersion() == null ? null : departmentDTO.getVersion() + 1)
+                .build();
+    }
+
+    @Override
+    public BatchResultDTO upsertDepartments(List<DepartmentDTO> departmentDTOList) {
+        log.info("Invoke upsertDepartments method.");
+        validateBatchRequest(departmentDTOList);
+        try {
+            BatchItemResultDTO[] results = new BatchItemResultDTO[departmentDTOList.size()];
+            Set<Long> departmentIds = departmentDTOList.stream()
+                    .filter(Objects::nonNull)
+                    .map(DepartmentDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, Department> existingDepartments = departmentRepository.findAllById(departmentIds).stream()
+                    .collect(Collectors.toMap(Department::getId, Function.identity()));
+
+            List<Department> newDepartments = new ArrayList<>();
+            List<Integer> newDepartmentIndexes = new ArrayList<>();
+            for (int index = 0; index < departmentDTOList.size(); index++) {
+                DepartmentDTO departmentDTO = departmentDTOList.get(index);
+                if (departmentDTO == null) {
+                    results[index] = BatchItemResultDTO.failed(index, null, "Request is null.");
+                } else if (departmentDTO.getId() == null) {
+                    newDepartments.add(Department.buildEntity(departmentDTO));
+                    newDepartmentIndexes.add(index);
+                } else {
+                    Department department = existingDepartments.get(departmentDTO.getId());
+                    if (department == null) {
+                        results[index] = BatchItemResultDTO.failed(index, departmentDTO.getId(),
+                                "Department not found by departmentId : " + departmentDTO.getId());
+                    } else if (departmentDTO.getVersion() != null && departmentDTO.getVersion() != department.getVersion()) {
+                        results[index] = BatchItemResultDTO.failed(index, departmentDTO.getId(),
+                                "Department was modified, current version : " + department.getVersion());
+                    } else {
+                        department.setDepartmentName(departmentDTO.getDepartmentName());
+                        results[index] = BatchItemResultDTO.updated(index, department.getId());
+                    }
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            for (int i = 0; i < newDepartments.size(); i++) {
+                Department department = newDepartments.get(i);
+                entityManager.persist(department);
+                results[newDepartmentIndexes.get(i)] = BatchItemResultDTO.created(newDepartmentIndexes.get(i), department.getId());
+                if ((i + 1) % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            departmentEntityCache.invalidateAfterCommit(existingDepartments.keySet());
+            log.info("End upsertDepartments method.");
+            return BatchResultDTO.buildResult(Arrays.asList(results));
         } catch (Exception ex) {
-            log.error("Exception while update department.", ex);
-            throw new InternalServerException("Exception while update department.");
+            throw new InternalServerException("Exception while upsert departments.", ex);
         }
     }
 
     @Override
-    public List<DepartmentDTO> getDepartments() {
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPageDTO<DepartmentDTO> getDepartments(Integer limit, String after) {
         log.info("Invoke getDepartments method.");
+        int pageSize = normalizeLimit(limit);
+        long afterId = decode(after);
         try {
-            List<Department> departmentList = departmentRepository.findAll();
+            CursorPageDTO<DepartmentDTO> departmentPage = departmentEntityCache.getPage(pageSize, afterId, () -> {
+                List<DepartmentDTO> departmentList = departmentRepository.findPageAfter(afterId, PageRequest.of(0, pageSize + 1));
+                return CursorPageDTO.buildPage(departmentList, pageSize, DepartmentDTO::getId);
+            });
             log.info("End getDepartments method.");
-            return departmentList.stream().map(DepartmentDTO::buildDTO).toList();
+            return departmentPage;
         } catch (Exception ex) {
-            log.error("Exception while get all department.", ex);
-            throw new InternalServerException("Exception while get all department.");
+            throw new InternalServerException("Exception while get all department.", ex);
         }
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<DepartmentDTO> getDepartmentsByIds(List<Long> departmentIds) {
+        log.info("Invoke getDepartmentsByIds method.");
+        if (departmentIds.size() > MAX_LIMIT) {
+            throw new InvalidRequestException("Ids must not exceed " + MAX_LIMIT + ".");
+        }
+        try {
+            Map<Long, DepartmentDTO> departmentMap = departmentEntityCache.getDepartments(new HashSet<>(departmentIds),
+                    missingIds -> departmentRepository.findAllById(missingIds).stream()
+                            .collect(Collectors.toMap(Department::getId, DepartmentDTO::buildDTO)));
+            log.info("End getDepartmentsByIds method.");
+            return List.copyOf(departmentMap.values());
+        } catch (Exception ex) {
+            throw new InternalServerException("Exception while get departments by ids.", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public DepartmentDTO getDepartmentById(Long departmentId) {
         log.info("Invoke getDepartmentById method.");
-        Department department = getDepartmentByDepartmentId(departmentId);
-        if (department == null) {
+        DepartmentDTO departmentDTO = departmentEntityCache.getDepartment(departmentId,
+                id -> DepartmentDTO.buildDTO(getDepartmentByDepartmentId(id)));
+        if (departmentDTO == null) {
             throw new ResourceNotFoundException("Department not found by departmentId : " + departmentId);
         }
         log.info("End getDepartmentById method.");
-        return DepartmentDTO.buildDTO(department);
+        return departmentDTO;
     }
 
     private void validateUpdateRequest(DepartmentDTO departmentDTO, Long departmentId) {
@@ -85,9 +204,21 @@ public class DepartmentServiceImpl implements DepartmentService {
         if (!Objects.equals(departmentDTO.getId(), departmentId)) {
             throw new InvalidRequestException("DepartmentId is not match with request.");
         }
-        Department department = getDepartmentByDepartmentId(departmentId);
-        if (department == null) {
-            throw new ResourceNotFoundException("Department not found by departmentId : " + departmentId);
+    }
+
+    private RuntimeException updateFailure(Long departmentId, Long version) {
+        if (!departmentRepository.existsById(departmentId)) {
+            return new ResourceNotFoundException("Department not found by departmentId : " + departmentId);
+        }
+        return new ConflictException("Department was modified, expected version : " + version);
+    }
+
+    private void validateBatchRequest(List<DepartmentDTO> departmentDTOList) {
+        if (departmentDTOList == null || departmentDTOList.isEmpty()) {
+            throw new InvalidRequestException("Request is empty.");
+        }
+        if (departmentDTOList.size() > batchMaxSize) {
+            throw new InvalidRequestException("Batch size must not exceed " + batchMaxSize + ".");
         }
     }
 
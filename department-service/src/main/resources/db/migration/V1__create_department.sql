@@ -0,0 +1,8 @@
+-- Schema previously created by spring.jpa.hibernate.ddl-auto=update, before versions and pooled ids. Databases
+-- created that way are baselined at version 1 (baselineOnMigrate), so this script only runs against an empty
+-- database.
+create table department (
+    id              bigint       not null auto_increment,
+    department_name varchar(255),
+    primary key (id)
+) engine = InnoDB;
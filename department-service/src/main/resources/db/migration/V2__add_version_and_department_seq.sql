@@ -0,0 +1,15 @@
+-- Optimistic locking. Existing rows start at version 0.
+alter table department add column version bigint not null default 0;
+alter table department alter column version drop default;
+
+-- Ids now come from the pooled department_seq (blocks of 50) instead of AUTO_INCREMENT. MySQL has no sequences,
+-- Hibernate emulates department_seq with a table. Start it one allocation block past max(id), as
+-- IdSequenceAligner does.
+alter table department modify id bigint not null;
+
+create table department_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into department_seq (next_val)
+select coalesce((floor(max(id) / 50) + 2) * 50 + 1, 1) from department;
@@ -0,0 +1,36 @@
+package com.elk.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyResult {
+
+    private double p50;
+    private double p95;
+    private double p99;
+    private double p999;
+    private double max;
+    private double mean;
+
+    public static LatencyResult fromMicros(Histogram histogram) {
+        return LatencyResult.builder()
+                .p50(toMillis(histogram.getValueAtPercentile(50)))
+                .p95(toMillis(histogram.getValueAtPercentile(95)))
+                .p99(toMillis(histogram.getValueAtPercentile(99)))
+                .p999(toMillis(histogram.getValueAtPercentile(99.9)))
+                .max(toMillis(histogram.getMaxValue()))
+                .mean(Math.round(histogram.getMean()) / 1000d)
+                .build();
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000d;
+    }
+}
@@ -0,0 +1,180 @@
+package com.elk.loadtest;
+
+import com.elk.utils.CursorUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are issued on a fixed schedule regardless of how fast responses come back, and each
+ * latency is measured from the request's scheduled start, so queueing in the services is not hidden by a slow
+ * client (coordinated omission). Requests that would exceed the in-flight limit are counted as dropped.
+ */
+@Slf4j
+class LoadGenerator {
+
+    private static final String JSON = "application/json";
+
+    private final HttpClient httpClient;
+    private final LoadTestOptions options;
+    private final String userUrl;
+    private final List<Long> userIds;
+    private final List<Long> departmentIds;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadGenerator(HttpClient httpClient, LoadTestOptions options, String userServiceUrl, List<Long> userIds,
+                  List<Long> departmentIds) {
+        this.httpClient = httpClient;
+        this.options = options;
+        this.userUrl = userServiceUrl + "/api/v1/user";
+        this.userIds = userIds;
+        this.departmentIds = departmentIds;
+        this.operations = options.getMix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.getMix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    RunResult run(String threadMode) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+        log.info("Running {} thread mode : {} req/s for {} s after {} s warmup.", threadMode, options.getRate(),
+                options.getDurationSeconds(), options.getWarmupSeconds());
+
+        for (long scheduledNanos = startNanos; scheduledNanos < endNanos; scheduledNanos += intervalNanos) {
+            long waitNanos;
+            while ((waitNanos = scheduledNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            boolean measured = scheduledNanos >= measureStartNanos;
+            if (inFlight.get() >= options.getMaxInFlight()) {
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            Operation operation = nextOperation();
+            OperationStats operationStats = measured ? stats.get(operation) : null;
+            if (measured) {
+                sent.incrementAndGet();
+            }
+            inFlight.incrementAndGet();
+            long intendedStartNanos = scheduledNanos;
+            httpClient.sendAsync(buildRequest(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        long latencyNanos = System.nanoTime() - intendedStartNanos;
+                        inFlight.decrementAndGet();
+                        if (operationStats == null) {
+                            return;
+                        }
+                        if (ex == null && response.statusCode() < 400) {
+                            operationStats.recordSuccess(latencyNanos);
+                        } else {
+                            operationStats.recordError();
+                        }
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getTimeoutMs());
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return buildResult(threadMode, stats, sent.get(), dropped.get());
+    }
+
+    private RunResult buildResult(String threadMode, Map<Operation, OperationStats> stats, long sent, long dropped) {
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        Map<String, OperationResult> operationResults = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            total.add(entry.getValue().getHistogram());
+            errors += entry.getValue().getErrors();
+            operationResults.put(entry.getKey().getName(), entry.getValue().toResult(options.getDurationSeconds()));
+        }
+        return RunResult.builder()
+                .threadMode(threadMode)
+                .targetRate(options.getRate())
+                .durationSeconds(options.getDurationSeconds())
+                .sent(sent)
+                .completed(total.getTotalCount())
+                .errors(errors)
+                .dropped(dropped)
+                .throughput(Math.round(total.getTotalCount() * 10d / options.getDurationSeconds()) / 10d)
+                .latencyMs(LatencyResult.fromMicros(total))
+                .operations(operationResults)
+                .build();
+    }
+
+    private Operation nextOperation() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder builder;
+        switch (operation) {
+            case GET:
+                builder = HttpRequest.newBuilder(URI.create(userUrl + "/" + randomUserId(random))).GET();
+                break;
+            case LIST:
+                builder = HttpRequest.newBuilder(URI.create(userUrl + "?limit=50&expand=department&after="
+                        + CursorUtils.encode(randomUserId(random) - 1))).GET();
+                break;
+            case CREATE:
+                builder = HttpRequest.newBuilder(URI.create(userUrl))
+                        .header("Content-Type", JSON)
+                        .POST(HttpRequest.BodyPublishers.ofString(userJson(null, random)));
+                break;
+            default:
+                long userId = randomUserId(random);
+                builder = HttpRequest.newBuilder(URI.create(userUrl + "/" + userId))
+                        .header("Content-Type", JSON)
+                        .PUT(HttpRequest.BodyPublishers.ofString(userJson(userId, random)));
+        }
+        return builder.timeout(Duration.ofMillis(options.getTimeoutMs())).build();
+    }
+
+    private long randomUserId(ThreadLocalRandom random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    private String userJson(Long userId, ThreadLocalRandom random) {
+        int suffix = random.nextInt(1_000_000);
+        return "{" + (userId == null ? "" : "\"id\":" + userId + ",") + "\"firstName\":\"Load" + suffix + "\",\"lastName\":\"Test" + suffix + "\",\"gender\":\""
+                + (random.nextBoolean() ? "M" : "F") + "\",\"age\":" + (18 + random.nextInt(50))
+                + ",\"departmentId\":" + departmentIds.get(random.nextInt(departmentIds.size())) + "}";
+    }
+}
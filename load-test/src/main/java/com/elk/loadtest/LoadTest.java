@@ -0,0 +1,221 @@
+package com.elk.loadtest;
+
+import com.elk.dto.BatchItemResultDTO;
+import com.elk.dto.BatchResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Starts department-service and user-service as child JVMs against in-memory H2, seeds them through the batch
+ * endpoints, drives a fixed-arrival-rate request mix against user-service and writes latency percentiles and
+ * throughput per operation as JSON. Runs once per requested thread mode so platform and virtual threads can be
+ * compared on the same box.
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final String USER_SERVICE = "user-service";
+    private static final String DEPARTMENT_SERVICE = "department-service";
+    private static final String LOAD_TEST = "load-test";
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    public void run() throws Exception {
+        List<Path> classpath = resolveClasspath();
+        String userClasspath = childClasspath(classpath, DEPARTMENT_SERVICE);
+        String departmentClasspath = childClasspath(classpath, USER_SERVICE);
+        LoadTestReport report = LoadTestReport.builder()
+                .label(options.getLabel())
+                .startedAt(Instant.now().toString())
+                .javaVersion(System.getProperty("java.version"))
+                .availableProcessors(Runtime.getRuntime().availableProcessors())
+                .mix(options.getMix().entrySet().stream().collect(Collectors.toMap(entry -> entry.getKey().getName(),
+                        Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new)))
+                .warmupSeconds(options.getWarmupSeconds())
+                .departments(options.getDepartments())
+                .users(options.getUsers())
+                .runs(new ArrayList<>())
+                .build();
+        for (String threadMode : options.getThreadModes()) {
+            report.getRuns().add(runThreadMode(threadMode, userClasspath, departmentClasspath));
+        }
+        objectMapper.writeValue(options.getOutput().toFile(), report);
+        for (RunResult runResult : report.getRuns()) {
+            log.info("{} : {} req/s, p50 {} ms, p95 {} ms, p99 {} ms, p99.9 {} ms, errors {}, dropped {}",
+                    runResult.getThreadMode(), runResult.getThroughput(), runResult.getLatencyMs().getP50(),
+                    runResult.getLatencyMs().getP95(), runResult.getLatencyMs().getP99(),
+                    runResult.getLatencyMs().getP999(), runResult.getErrors(), runResult.getDropped());
+        }
+        log.info("Results written to {}", options.getOutput().toAbsolutePath());
+    }
+
+    private RunResult runThreadMode(String threadMode, String userClasspath, String departmentClasspath)
+            throws Exception {
+        Path runDirectory = options.getWorkDirectory().resolve(threadMode);
+        deleteRecursively(runDirectory);
+        Files.createDirectories(runDirectory.resolve("logs"));
+        String virtualThreads = "--spring.threads.virtual.enabled=" + threadMode.equals("virtual");
+        int departmentPort = freePort();
+        int userPort = freePort();
+        List<String> departmentArguments = new ArrayList<>(options.getServiceArgumentList());
+        departmentArguments.add(virtualThreads);
+        List<String> userArguments = new ArrayList<>(options.getServiceArgumentList());
+        userArguments.add(virtualThreads);
+        userArguments.add("--department.url=http://localhost:" + departmentPort);
+        try (ServiceProcess departmentService = ServiceProcess.start(DEPARTMENT_SERVICE,
+                "com.elk.DepartmentServiceApplication", departmentClasspath, departmentPort,
+                options.getChildJvmOptionList(), departmentArguments, runDirectory);
+             ServiceProcess userService = ServiceProcess.start(USER_SERVICE, "com.elk.UserServiceApplication",
+                     userClasspath, userPort, options.getChildJvmOptionList(), userArguments, runDirectory)) {
+            departmentService.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+            userService.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+            List<Long> departmentIds = seed(departmentService.getBaseUrl() + "/api/v1/department/batch",
+                    options.getDepartments(), index -> "{\"departmentName\":\"Department " + index + "\"}");
+            List<Long> userIds = seed(userService.getBaseUrl() + "/api/v1/user/batch", options.getUsers(),
+                    index -> "{\"firstName\":\"First" + index + "\",\"lastName\":\"Last" + index
+                            + "\",\"gender\":\"" + (index % 2 == 0 ? "F" : "M") + "\",\"age\":" + (18 + index % 50)
+                            + ",\"departmentId\":"
+                            + departmentIds.get(ThreadLocalRandom.current().nextInt(departmentIds.size())) + "}");
+            log.info("Seeded {} departments and {} users.", departmentIds.size(), userIds.size());
+            return new LoadGenerator(httpClient, options, userService.getBaseUrl(), userIds, departmentIds)
+                    .run(threadMode);
+        }
+    }
+
+    private List<Long> seed(String url, int count, IntFunction<String> itemJson)
+            throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += SEED_BATCH_SIZE) {
+            int to = Math.min(count, from + SEED_BATCH_SIZE);
+            StringBuilder body = new StringBuilder("[");
+            for (int index = from; index < to; index++) {
+                if (index > from) {
+                    body.append(',');
+                }
+                body.append(itemJson.apply(index));
+            }
+            body.append(']');
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(1))
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding " + url + " failed with status " + response.statusCode());
+            }
+            BatchResultDTO result = objectMapper.readValue(response.body(), BatchResultDTO.class);
+            for (BatchItemResultDTO item : result.getItems()) {
+                if (item.getStatus() == BatchItemResultDTO.Status.CREATED) {
+                    ids.add(item.getId());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Seeding " + url + " created no rows.");
+        }
+        return ids;
+    }
+
+    /**
+     * Classpath of this JVM, with the {@code Class-Path} manifest entries of jars expanded so that
+     * {@code java -jar load-test.jar} sees the copied dependencies.
+     */
+    static List<Path> resolveClasspath() throws IOException {
+        Set<Path> entries = new LinkedHashSet<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Paths.get(entry).toAbsolutePath().normalize();
+            entries.add(path);
+            if (path.toString().endsWith(".jar") && Files.isRegularFile(path)) {
+                try (JarFile jarFile = new JarFile(path.toFile())) {
+                    Manifest manifest = jarFile.getManifest();
+                    String manifestClasspath = manifest == null ? null
+                            : manifest.getMainAttributes().getValue("Class-Path");
+                    if (manifestClasspath != null) {
+                        for (String relative : manifestClasspath.trim().split("\\s+")) {
+                            entries.add(path.resolveSibling(relative).normalize());
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(entries);
+    }
+
+    static String childClasspath(List<Path> classpath, String excludedModule) {
+        return classpath.stream()
+                .filter(entry -> !isModule(entry, excludedModule) && !isModule(entry, LOAD_TEST))
+                .map(Path::toString)
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static boolean isModule(Path entry, String module) {
+        String fileName = entry.getFileName().toString();
+        if (fileName.equals(module + ".jar") || fileName.startsWith(module + "-")) {
+            return true;
+        }
+        return entry.endsWith(Paths.get(module, "target", "classes"));
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.elk.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+@Getter
+public class LoadTestOptions {
+
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final Map<Operation, Integer> mix;
+    private final List<String> threadModes;
+    private final int departments;
+    private final int users;
+    private final int maxInFlight;
+    private final long timeoutMs;
+    private final String childJvmOptions;
+    private final String serviceArguments;
+    private final Path output;
+    private final Path workDirectory;
+    private final String label;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.rate = Integer.parseInt(values.getOrDefault("rate", "200"));
+        this.durationSeconds = Integer.parseInt(values.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "15"));
+        this.mix = parseMix(values.getOrDefault("mix", "get:70,list:10,create:10,update:10"));
+        this.threadModes = Arrays.asList(values.getOrDefault("thread-modes", "platform").split(","));
+        this.departments = Integer.parseInt(values.getOrDefault("departments", "100"));
+        this.users = Integer.parseInt(values.getOrDefault("users", "10000"));
+        this.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "5000"));
+        this.timeoutMs = Long.parseLong(values.getOrDefault("timeout-ms", "10000"));
+        this.childJvmOptions = values.getOrDefault("jvm-opts", "-Xmx512m");
+        this.serviceArguments = values.getOrDefault("service-args", "");
+        this.output = Paths.get(values.getOrDefault("output", "load-test-result.json"));
+        this.workDirectory = Paths.get(values.getOrDefault("work-dir", "target/load-test"));
+        this.label = values.getOrDefault("label", "");
+        for (String threadMode : threadModes) {
+            if (!threadMode.equals("platform") && !threadMode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown thread mode : " + threadMode);
+            }
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        return new LoadTestOptions(parseValues(args));
+    }
+
+    public List<String> getChildJvmOptionList() {
+        return splitArguments(childJvmOptions);
+    }
+
+    public List<String> getServiceArgumentList() {
+        return splitArguments(serviceArguments);
+    }
+
+    static Map<String, String> parseValues(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but was : " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+
+    static List<String> splitArguments(String arguments) {
+        List<String> list = new ArrayList<>();
+        for (String argument : arguments.trim().split("\\s+")) {
+            if (!argument.isEmpty()) {
+                list.add(argument);
+            }
+        }
+        return list;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but was : " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix must contain at least one operation with a positive weight.");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,26 @@
+package com.elk.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoadTestReport {
+
+    private String label;
+    private String startedAt;
+    private String javaVersion;
+    private int availableProcessors;
+    private Map<String, Integer> mix;
+    private int warmupSeconds;
+    private int departments;
+    private int users;
+    private List<RunResult> runs;
+}
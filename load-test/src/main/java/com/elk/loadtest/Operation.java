@@ -0,0 +1,28 @@
+package com.elk.loadtest;
+
+public enum Operation {
+
+    GET("get"),
+    LIST("list"),
+    CREATE("create"),
+    UPDATE("update");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation : " + name);
+    }
+}
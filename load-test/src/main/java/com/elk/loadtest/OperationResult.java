@@ -0,0 +1,18 @@
+package com.elk.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OperationResult {
+
+    private long count;
+    private long errors;
+    private double throughput;
+    private LatencyResult latencyMs;
+}
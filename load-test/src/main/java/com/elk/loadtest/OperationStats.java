@@ -0,0 +1,43 @@
+package com.elk.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histogram (microseconds) and error count of one operation during the measured window.
+ */
+class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicLong errors = new AtomicLong();
+
+    void recordSuccess(long latencyNanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    Histogram getHistogram() {
+        return histogram;
+    }
+
+    long getErrors() {
+        return errors.get();
+    }
+
+    OperationResult toResult(int durationSeconds) {
+        return OperationResult.builder()
+                .count(histogram.getTotalCount())
+                .errors(errors.get())
+                .throughput(Math.round(histogram.getTotalCount() * 10d / durationSeconds) / 10d)
+                .latencyMs(LatencyResult.fromMicros(histogram))
+                .build();
+    }
+}
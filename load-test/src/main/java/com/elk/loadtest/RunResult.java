@@ -0,0 +1,26 @@
+package com.elk.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RunResult {
+
+    private String threadMode;
+    private int targetRate;
+    private int durationSeconds;
+    private long sent;
+    private long completed;
+    private long errors;
+    private long dropped;
+    private double throughput;
+    private LatencyResult latencyMs;
+    private Map<String, OperationResult> operations;
+}
@@ -0,0 +1,122 @@
+package com.elk.loadtest;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service started as a child JVM against an in-memory H2 database.
+ */
+@Slf4j
+public class ServiceProcess implements AutoCloseable {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int port;
+    private final Process process;
+    private final long startedAtNanos;
+
+    private ServiceProcess(String name, int port, Process process, long startedAtNanos) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.startedAtNanos = startedAtNanos;
+    }
+
+    public static ServiceProcess start(String name, String mainClass, String classpath, int port,
+                                       List<String> jvmOptions, List<String> applicationArguments,
+                                       Path workDirectory) throws IOException {
+        Path logDirectory = workDirectory.resolve("logs");
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-DLOG_FILE_PATH=" + logDirectory.toAbsolutePath());
+        command.add("-cp");
+        command.add(classpath);
+        command.add(mainClass);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.jpa.hibernate.ddl-auto=create");
+        command.addAll(applicationArguments);
+        long startedAtNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDirectory.resolve(name + ".out").toFile())
+                .start();
+        log.info("Started {} on port {} (pid {}).", name, port, process.pid());
+        return new ServiceProcess(name, port, process, startedAtNanos);
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    public void awaitHealthy(HttpClient httpClient, Duration timeout) throws InterruptedException {
+        awaitOk(httpClient, "/actuator/health", timeout, 250);
+        log.info("{} is healthy.", name);
+    }
+
+    /**
+     * Polls {@code path} until it answers 200 and returns the milliseconds since the JVM was launched.
+     */
+    public double awaitFirstResponse(HttpClient httpClient, String path, Duration timeout)
+            throws InterruptedException {
+        return Math.round(awaitOk(httpClient, path, timeout, 5) / 1000d) / 1000d;
+    }
+
+    public void awaitExit(Duration timeout) throws InterruptedException {
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException(name + " did not exit within " + timeout.toSeconds() + " s.");
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                    + ", see " + name + ".out in the work directory.");
+        }
+    }
+
+    private long awaitOk(HttpClient httpClient, String path, Duration timeout, long pollMs)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(getBaseUrl() + path))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                        + ", see " + name + ".out in the work directory.");
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime() - startedAtNanos;
+                }
+            } catch (IOException ex) {
+                // not listening yet
+            }
+            Thread.sleep(pollMs);
+        }
+        throw new IllegalStateException(name + " did not answer " + path + " within " + timeout.toSeconds() + " s.");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        log.info("Stopped {}.", name);
+    }
+}
@@ -0,0 +1,36 @@
+package com.elk.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StartupResult {
+
+    private String service;
+    private String mode;
+    private List<Double> firstResponseMs;
+    private double min;
+    private double median;
+    private double max;
+
+    public static StartupResult of(String service, String mode, List<Double> firstResponseMs) {
+        List<Double> sorted = firstResponseMs.stream().sorted().toList();
+        int middle = sorted.size() / 2;
+        double median = sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+        return StartupResult.builder()
+                .service(service)
+                .mode(mode)
+                .firstResponseMs(firstResponseMs)
+                .min(sorted.get(0))
+                .median(median)
+                .max(sorted.get(sorted.size() - 1))
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.elk.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures time-to-first-request: starts a service as a child JVM against in-memory H2 and polls one of its
+ * database-backed endpoints until it answers 200, reporting the milliseconds from process launch. Runs
+ * {@code --runs} times per service and mode. {@code default} starts the service as it ships; {@code fast-start}
+ * activates the {@code fast-start} profile and the AppCDS archive written by one training run beforehand, the same
+ * way the Dockerfiles do.
+ * <p>
+ * Hibernate still creates the H2 schema in both modes, so the part of the gain that comes from skipping schema
+ * validation against MySQL is not in these numbers. Run from the packaged jar: the archive is only used when every
+ * classpath entry is a jar.
+ */
+@Slf4j
+public class StartupTest {
+
+    private static final String USER_SERVICE = "user-service";
+    private static final String DEPARTMENT_SERVICE = "department-service";
+    private static final String DEFAULT_MODE = "default";
+
+    private final StartupTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient;
+
+    public StartupTest(StartupTestOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(500))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupTest(StartupTestOptions.parse(args)).run();
+    }
+
+    public void run() throws Exception {
+        List<Path> classpath = LoadTest.resolveClasspath();
+        StartupTestReport report = StartupTestReport.builder()
+                .label(options.getLabel())
+                .startedAt(Instant.now().toString())
+                .javaVersion(System.getProperty("java.version"))
+                .availableProcessors(Runtime.getRuntime().availableProcessors())
+                .runs(options.getRuns())
+                .results(new ArrayList<>())
+                .build();
+        for (String service : options.getServices()) {
+            String serviceClasspath = LoadTest.childClasspath(classpath,
+                    service.equals(USER_SERVICE) ? DEPARTMENT_SERVICE : USER_SERVICE);
+            for (String mode : options.getModes()) {
+                report.getResults().add(measure(service, mode, serviceClasspath));
+            }
+        }
+        objectMapper.writeValue(options.getOutput().toFile(), report);
+        for (StartupResult result : report.getResults()) {
+            log.info("{} {} : first request after min {} ms, median {} ms, max {} ms", result.getService(),
+                    result.getMode(), result.getMin(), result.getMedian(), result.getMax());
+        }
+        log.info("Results written to {}", options.getOutput().toAbsolutePath());
+    }
+
+    private StartupResult measure(String service, String mode, String classpath) throws Exception {
+        Path modeDirectory = options.getWorkDirectory().resolve(service).resolve(mode);
+        LoadTest.deleteRecursively(modeDirectory);
+        Files.createDirectories(modeDirectory.resolve("logs"));
+        List<String> jvmOptions = new ArrayList<>(options.getChildJvmOptionList());
+        List<String> arguments = new ArrayList<>(options.getServiceArgumentList());
+        if (!mode.equals(DEFAULT_MODE)) {
+            arguments.add("--spring.profiles.active=fast-start");
+            // The profile pins the MySQL dialect so startup needs no database metadata; these runs use H2.
+            arguments.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+            Path archive = modeDirectory.resolve(service + ".jsa").toAbsolutePath();
+            train(service, classpath, jvmOptions, arguments, archive, modeDirectory);
+            jvmOptions.add("-XX:SharedArchiveFile=" + archive);
+        }
+        List<Double> firstResponseMs = new ArrayList<>(options.getRuns());
+        for (int run = 0; run < options.getRuns(); run++) {
+            try (ServiceProcess serviceProcess = ServiceProcess.start(service, mainClass(service), classpath,
+                    LoadTest.freePort(), jvmOptions, arguments, modeDirectory)) {
+                double elapsedMs = serviceProcess.awaitFirstResponse(httpClient, firstRequestPath(service),
+                        Duration.ofSeconds(options.getTimeoutSeconds()));
+                log.info("{} {} run {} : first request after {} ms", service, mode, run + 1, elapsedMs);
+                firstResponseMs.add(elapsedMs);
+            }
+        }
+        return StartupResult.of(service, mode, firstResponseMs);
+    }
+
+    /**
+     * Starts the service once with every bean created and lets it exit when ready, dumping the classes it loaded.
+     */
+    private void train(String service, String classpath, List<String> jvmOptions, List<String> arguments,
+                       Path archive, Path modeDirectory) throws Exception {
+        List<String> trainingJvmOptions = new ArrayList<>(jvmOptions);
+        trainingJvmOptions.add("-XX:ArchiveClassesAtExit=" + archive);
+        List<String> trainingArguments = new ArrayList<>(arguments);
+        trainingArguments.add("--spring.main.lazy-initialization=false");
+        trainingArguments.add("--startup.exit-after-ready=true");
+        try (ServiceProcess serviceProcess = ServiceProcess.start(service, mainClass(service), classpath,
+                LoadTest.freePort(), trainingJvmOptions, trainingArguments, modeDirectory)) {
+            serviceProcess.awaitExit(Duration.ofSeconds(options.getTimeoutSeconds()));
+        }
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("No class data archive was written for " + service
+                    + ", see " + service + ".out in " + modeDirectory + ".");
+        }
+        log.info("Wrote class data archive {} ({} KB).", archive, Files.size(archive) / 1024);
+    }
+
+    private static String mainClass(String service) {
+        return service.equals(USER_SERVICE) ? "com.elk.UserServiceApplication" : "com.elk.DepartmentServiceApplication";
+    }
+
+    private static String firstRequestPath(String service) {
+        return service.equals(USER_SERVICE) ? "/api/v1/user?limit=1" : "/api/v1/department?limit=1";
+    }
+}
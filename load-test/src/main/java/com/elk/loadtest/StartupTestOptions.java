@@ -0,0 +1,63 @@
+package com.elk.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of {@link StartupTest}, given as {@code --name=value}.
+ */
+@Getter
+public class StartupTestOptions {
+
+    private final int runs;
+    private final List<String> modes;
+    private final List<String> services;
+    private final long timeoutSeconds;
+    private final String childJvmOptions;
+    private final String serviceArguments;
+    private final Path output;
+    private final Path workDirectory;
+    private final String label;
+
+    private StartupTestOptions(Map<String, String> values) {
+        this.runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+        this.modes = Arrays.asList(values.getOrDefault("modes", "default,fast-start").split(","));
+        this.services = Arrays.asList(values.getOrDefault("services", "user-service,department-service").split(","));
+        this.timeoutSeconds = Long.parseLong(values.getOrDefault("timeout-seconds", "180"));
+        this.childJvmOptions = values.getOrDefault("jvm-opts", "-Xmx512m");
+        this.serviceArguments = values.getOrDefault("service-args", "");
+        this.output = Paths.get(values.getOrDefault("output", "startup-test-result.json"));
+        this.workDirectory = Paths.get(values.getOrDefault("work-dir", "target/startup-test"));
+        this.label = values.getOrDefault("label", "");
+        for (String mode : modes) {
+            if (!mode.equals("default") && !mode.equals("fast-start")) {
+                throw new IllegalArgumentException("Unknown startup mode : " + mode);
+            }
+        }
+        for (String service : services) {
+            if (!service.equals("user-service") && !service.equals("department-service")) {
+                throw new IllegalArgumentException("Unknown service : " + service);
+            }
+        }
+        if (runs < 1) {
+            throw new IllegalArgumentException("runs must be at least 1.");
+        }
+    }
+
+    public static StartupTestOptions parse(String[] args) {
+        return new StartupTestOptions(LoadTestOptions.parseValues(args));
+    }
+
+    public List<String> getChildJvmOptionList() {
+        return LoadTestOptions.splitArguments(childJvmOptions);
+    }
+
+    public List<String> getServiceArgumentList() {
+        return LoadTestOptions.splitArguments(serviceArguments);
+    }
+}
@@ -0,0 +1,22 @@
+package com.elk.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StartupTestReport {
+
+    private String label;
+    private String startedAt;
+    private String javaVersion;
+    private int availableProcessors;
+    private int runs;
+    private List<StartupResult> results;
+}
@@ -0,0 +1,98 @@
+package com.elk.cache;
+
+import com.elk.client.DepartmentClient;
+import com.elk.context.ContextPropagatingExecutor;
+import com.elk.dto.CacheStatsDTO;
+import com.elk.dto.DepartmentDTO;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class DepartmentCache {
+
+    private final DepartmentClient departmentClient;
+    private final AsyncLoadingCache<Long, DepartmentDTO> cache;
+
+    public DepartmentCache(DepartmentClient departmentClient,
+                           ExecutorService departmentLoadExecutor,
+                           @Value("${department.cache.max-size:10000}") long maxSize,
+                           @Value("${department.cache.ttl-seconds:600}") long ttlSeconds,
+                           @Value("${department.cache.refresh-after-seconds:300}") long refreshAfterSeconds) {
+        this.departmentClient = departmentClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .executor(new ContextPropagatingExecutor(departmentLoadExecutor))
+                .recordStats()
+                .buildAsync(new DepartmentLoader());
+    }
+
+    public DepartmentDTO getDepartment(Long departmentId) {
+        return join(cache.get(departmentId));
+    }
+
+    public Map<Long, DepartmentDTO> getDepartments(Set<Long> departmentIds) {
+        return join(cache.getAll(departmentIds));
+    }
+
+    public CacheStatsDTO getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        return CacheStatsDTO.builder()
+                .size(cache.synchronous().estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .loadSuccessCount(stats.loadSuccessCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadPenaltyMs(stats.averageLoadPenalty() / 1_000_000d)
+                .build();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    private class DepartmentLoader implements CacheLoader<Long, DepartmentDTO> {
+
+        @Override
+        public DepartmentDTO load(Long departmentId) {
+            return departmentClient.getDepartment(departmentId);
+        }
+
+        @Override
+        public DepartmentDTO reload(Long departmentId, DepartmentDTO oldValue) {
+            return departmentClient.revalidateDepartment(oldValue);
+        }
+
+        @Override
+        public Map<Long, DepartmentDTO> loadAll(Iterable<? extends Long> departmentIds) {
+            Set<Long> ids = new TreeSet<>();
+            departmentIds.forEach(ids::add);
+            return departmentClient.getDepartments(ids).stream()
+                    .collect(Collectors.toMap(DepartmentDTO::getId, Function.identity()));
+        }
+    }
+}
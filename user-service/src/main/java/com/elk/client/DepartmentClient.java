@@ -0,0 +1,170 @@
+package com.elk.client;
+
+import com.elk.context.RequestDeadline;
+import com.elk.dto.ConnectionPoolStatsDTO;
+import com.elk.dto.DepartmentDTO;
+import com.elk.dto.ResilienceStatsDTO;
+import com.elk.exceptions.DeadlineExceededException;
+import com.elk.exceptions.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import static com.elk.utils.ETagUtils.departmentTag;
+
+@Component
+@Slf4j
+public class DepartmentClient {
+
+    private final RestTemplate restTemplate;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgingExecutor hedgingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final String departmentUrl;
+    private final List<MediaType> acceptedMediaTypes;
+
+    public DepartmentClient(RestTemplate restTemplate,
+                            PoolingHttpClientConnectionManager departmentConnectionManager,
+                            CircuitBreaker departmentCircuitBreaker,
+                            HedgingExecutor departmentHedgingExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${department.url}") String departmentUrl,
+                            @Value("${department.client.media-type:application/x-jackson-smile}") MediaType mediaType) {
+        this.restTemplate = restTemplate;
+        this.connectionManager = departmentConnectionManager;
+        this.circuitBreaker = departmentCircuitBreaker;
+        this.hedgingExecutor = departmentHedgingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.departmentUrl = departmentUrl;
+        this.acceptedMediaTypes = List.of(mediaType, MediaType.valueOf("application/json;q=0.5"));
+    }
+
+    public DepartmentDTO getDepartment(Long departmentId) {
+        String url = departmentUrl + "/api/v1/department/" + departmentId;
+        log.info("Department url : {}", url);
+        return execute("get", () -> restTemplate.exchange(url, HttpMethod.GET, buildRequestEntity(),
+                DepartmentDTO.class).getBody());
+    }
+
+    /**
+     * Conditional GET with the ETag of the cached copy; returns the cached copy when department-service answers 304.
+     */
+    public DepartmentDTO revalidateDepartment(DepartmentDTO cachedDepartmentDTO) {
+        String url = departmentUrl + "/api/v1/department/" + cachedDepartmentDTO.getId();
+        log.info("Department url : {}", url);
+        HttpHeaders headers = buildHeaders();
+        headers.setIfNoneMatch(departmentTag(cachedDepartmentDTO));
+        ResponseEntity<DepartmentDTO> response = execute("revalidate", () -> restTemplate.exchange(url,
+                HttpMethod.GET, new HttpEntity<>(headers), DepartmentDTO.class));
+        boolean notModified = response.getStatusCode() == HttpStatus.NOT_MODIFIED;
+        meterRegistry.counter("department.client.revalidations", "result",
+                notModified ? "not_modified" : "modified").increment();
+        return notModified ? cachedDepartmentDTO : response.getBody();
+    }
+
+    public List<DepartmentDTO> getDepartments(Collection<Long> departmentIds) {
+        String url = departmentUrl + "/api/v1/department?ids="
+                + StringUtils.collectionToCommaDelimitedString(new TreeSet<>(departmentIds));
+        log.info("Department url : {}", url);
+        List<DepartmentDTO> departmentDTOList = execute("multi-get", () -> restTemplate.exchange(url, HttpMethod.GET,
+                buildRequestEntity(), new ParameterizedTypeReference<List<DepartmentDTO>>() {
+                }).getBody());
+        return Optional.ofNullable(departmentDTOList).orElse(Collections.emptyList());
+    }
+
+    public ConnectionPoolStatsDTO getPoolStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return ConnectionPoolStatsDTO.builder()
+                .leased(stats.getLeased())
+                .pending(stats.getPending())
+                .available(stats.getAvailable())
+                .max(stats.getMax())
+                .routes(connectionManager.getRoutes().size())
+                .build();
+    }
+
+    public ResilienceStatsDTO getResilienceStats() {
+        CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        return ResilienceStatsDTO.builder()
+                .circuitState(circuitBreaker.getState().name())
+                .failureRate(metrics.getFailureRate())
+                .slowCallRate(metrics.getSlowCallRate())
+                .notPermittedCalls(metrics.getNumberOfNotPermittedCalls())
+                .hedgeDelayMs(hedgingExecutor.getHedgeDelayNanos() / 1_000_000d)
+                .hedgedCalls(hedgingExecutor.getHedgedCalls())
+                .hedgeWins(hedgingExecutor.getHedgeWins())
+                .build();
+    }
+
+    private <T> T execute(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SUCCESS";
+        try {
+            if (RequestDeadline.isExpired()) {
+                throw new DeadlineExceededException("Request budget exhausted before calling department-service.");
+            }
+            return circuitBreaker.executeSupplier(() -> hedgingExecutor.execute(call));
+        } catch (CallNotPermittedException ex) {
+            outcome = "UNAVAILABLE";
+            throw new ServiceUnavailableException("Department service circuit breaker is open.");
+        } catch (RuntimeException ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("department.client.requests", "operation", operation,
+                    "outcome", outcome));
+        }
+    }
+
+    private static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof DeadlineExceededException) {
+            return "DEADLINE_EXCEEDED";
+        } else if (ex instanceof ServiceUnavailableException) {
+            return "UNAVAILABLE";
+        } else if (ex instanceof HttpClientErrorException) {
+            return "CLIENT_ERROR";
+        } else if (ex instanceof HttpServerErrorException) {
+            return "SERVER_ERROR";
+        }
+        return "ERROR";
+    }
+
+    private HttpEntity<Void> buildRequestEntity() {
+        return new HttpEntity<>(buildHeaders());
+    }
+
+    private HttpHeaders buildHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(acceptedMediaTypes);
+        long remainingMs = RequestDeadline.remainingMillis();
+        if (remainingMs != Long.MAX_VALUE) {
+            headers.set(RequestDeadline.HEADER, String.valueOf(remainingMs));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,114 @@
+package com.elk.client;
+
+import com.elk.context.ContextPropagatingExecutor;
+import com.elk.context.RequestDeadline;
+import com.elk.exceptions.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+public class HedgingExecutor {
+
+    private final Executor executor;
+    private final LatencyTracker latencyTracker;
+    private final boolean enabled;
+    private final long minDelayNanos;
+    private final AtomicLong hedgedCalls = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public HedgingExecutor(Executor executor, LatencyTracker latencyTracker, boolean enabled, long minDelayMs) {
+        this.executor = new ContextPropagatingExecutor(executor);
+        this.latencyTracker = latencyTracker;
+        this.enabled = enabled;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        long remainingMs = RequestDeadline.remainingMillis();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pendingAttempts = new AtomicInteger(1);
+        if (!submit(call, result, pendingAttempts, false)) {
+            return call.get();
+        }
+        try {
+            long hedgeDelayNanos = getHedgeDelayNanos();
+            if (hedgeDelayNanos > 0 && TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos) < remainingMs) {
+                try {
+                    return result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException ex) {
+                    pendingAttempts.incrementAndGet();
+                    if (submit(call, result, pendingAttempts, true)) {
+                        hedgedCalls.incrementAndGet();
+                        log.info("Hedging slow department call after {} ms.", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos));
+                    } else {
+                        pendingAttempts.decrementAndGet();
+                    }
+                }
+            }
+            long waitMs = RequestDeadline.remainingMillis();
+            return waitMs == Long.MAX_VALUE ? result.get() : result.get(Math.max(0, waitMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            result.cancel(false);
+            throw new DeadlineExceededException("Request budget exhausted while waiting for department-service.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for department-service.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    public long getHedgedCalls() {
+        return hedgedCalls.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public long getHedgeDelayNanos() {
+        if (!enabled) {
+            return -1;
+        }
+        long percentileNanos = latencyTracker.getPercentileNanos();
+        return percentileNanos < 0 ? -1 : Math.max(minDelayNanos, percentileNanos);
+    }
+
+    private <T> boolean submit(Supplier<T> call, CompletableFuture<T> result, AtomicInteger pendingAttempts,
+                               boolean hedge) {
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    T value = call.get();
+                    latencyTracker.record(System.nanoTime() - start);
+                    if (result.complete(value) && hedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                } catch (RuntimeException ex) {
+                    if (pendingAttempts.decrementAndGet() == 0) {
+                        result.completeExceptionally(ex);
+                    }
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+}
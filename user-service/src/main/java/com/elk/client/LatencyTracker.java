@@ -0,0 +1,46 @@
+package com.elk.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int windowSize, double percentile) {
+        this.samples = new AtomicLongArray(windowSize);
+        this.percentile = percentile;
+    }
+
+    public void record(long latencyNanos) {
+        long sequence = count.getAndIncrement();
+        samples.set((int) (sequence % samples.length()), latencyNanos);
+        if ((sequence + 1) % RECOMPUTE_EVERY == 0) {
+            recompute(Math.min(sequence + 1, samples.length()));
+        }
+    }
+
+    public long getPercentileNanos() {
+        return percentileNanos;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    private void recompute(long size) {
+        long[] snapshot = new long[(int) size];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        int index = (int) Math.min(snapshot.length - 1, Math.ceil(percentile * snapshot.length) - 1);
+        percentileNanos = snapshot[Math.max(0, index)];
+    }
+}
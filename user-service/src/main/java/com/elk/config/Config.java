@@ -1,14 +1,140 @@
 package com.elk.config;
 
+import com.elk.client.HedgingExecutor;
+import com.elk.client.LatencyTracker;
+import com.elk.trace.TracingClientHttpRequestInterceptor;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class Config {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PoolingHttpClientConnectionManager departmentConnectionManager(
+            @Value("${department.client.max-connections-total:200}") int maxConnectionsTotal,
+            @Value("${department.client.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${department.client.validate-after-inactivity-ms:2000}") int validateAfterInactivityMs) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnectionsTotal);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMs);
+        return connectionManager;
+    }
+
+    @Bean
+    public MeterBinder departmentConnectionPoolMetrics(PoolingHttpClientConnectionManager departmentConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(departmentConnectionManager, "department");
+    }
+
+    @Bean
+    public RequestConfig departmentRequestConfig(
+            @Value("${department.client.connect-timeout-ms:1000}") int connectTimeoutMs,
+            @Value("${department.client.read-timeout-ms:3000}") int readTimeoutMs,
+            @Value("${department.client.connection-request-timeout-ms:500}") int connectionRequestTimeoutMs) {
+        return RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient departmentHttpClient(
+            PoolingHttpClientConnectionManager departmentConnectionManager,
+            RequestConfig departmentRequestConfig,
+            @Value("${department.client.idle-evict-seconds:30}") long idleEvictSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(departmentConnectionManager)
+                .setDefaultRequestConfig(departmentRequestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient departmentHttpClient, RequestConfig departmentRequestConfig) {
+        RestTemplate restTemplate = new RestTemplate(
+                new DeadlineAwareRequestFactory(departmentHttpClient, departmentRequestConfig));
+        restTemplate.getInterceptors().add(new TracingClientHttpRequestInterceptor());
+        return restTemplate;
+    }
+
+    @Bean
+    public CircuitBreaker departmentCircuitBreaker(
+            @Value("${department.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${department.resilience.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+            @Value("${department.resilience.slow-call-threshold-ms:1000}") long slowCallThresholdMs,
+            @Value("${department.resilience.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${department.resilience.minimum-calls:20}") int minimumCalls,
+            @Value("${department.resilience.open-state-seconds:10}") long openStateSeconds) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofSeconds(openStateSeconds))
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+        return CircuitBreaker.of("department-service", circuitBreakerConfig);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService departmentCallExecutor(
+            @Value("${department.client.max-connections-per-route:50}") int maxThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("department-call-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("department-call-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService departmentLoadExecutor(
+            @Value("${department.client.max-connections-per-route:50}") int maxThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("department-load-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("department-load-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean
+    public HedgingExecutor departmentHedgingExecutor(
+            ExecutorService departmentCallExecutor,
+            @Value("${department.resilience.hedging-enabled:true}") boolean hedgingEnabled,
+            @Value("${department.resilience.hedge-percentile:0.95}") double hedgePercentile,
+            @Value("${department.resilience.hedge-min-delay-ms:20}") long hedgeMinDelayMs) {
+        return new HedgingExecutor(departmentCallExecutor, new LatencyTracker(512, hedgePercentile),
+                hedgingEnabled, hedgeMinDelayMs);
     }
 }
@@ -0,0 +1,37 @@
+package com.elk.config;
+
+import com.elk.context.RequestDeadline;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+
+public class DeadlineAwareRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private final RequestConfig defaultRequestConfig;
+
+    public DeadlineAwareRequestFactory(HttpClient httpClient, RequestConfig defaultRequestConfig) {
+        super(httpClient);
+        this.defaultRequestConfig = defaultRequestConfig;
+    }
+
+    @Override
+    protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+        long remainingMs = RequestDeadline.remainingMillis();
+        if (remainingMs == Long.MAX_VALUE) {
+            return null;
+        }
+        int budgetMs = (int) Math.max(1, Math.min(Integer.MAX_VALUE, remainingMs));
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.copy(defaultRequestConfig)
+                .setConnectTimeout(Math.min(defaultRequestConfig.getConnectTimeout(), budgetMs))
+                .setSocketTimeout(Math.min(defaultRequestConfig.getSocketTimeout(), budgetMs))
+                .setConnectionRequestTimeout(Math.min(defaultRequestConfig.getConnectionRequestTimeout(), budgetMs))
+                .build());
+        return context;
+    }
+}
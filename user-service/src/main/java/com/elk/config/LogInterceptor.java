@@ -1,26 +1,33 @@
 package com.elk.config;
 
-import org.slf4j.MDC;
+import com.elk.context.RequestDeadline;
+import com.elk.trace.TraceContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.UUID;
 
 @Component
 public class LogInterceptor implements HandlerInterceptor {
 
+    @Value("${request.budget-ms:2000}")
+    private long defaultBudgetMs;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        MDC.put("eventTraceId", UUID.randomUUID().toString());
+        TraceContext.startServerSpan(request);
+        Long budgetMs = RequestDeadline.parseBudget(request.getHeader(RequestDeadline.HEADER));
+        RequestDeadline.start(budgetMs != null ? budgetMs : defaultBudgetMs);
         return HandlerInterceptor.super.preHandle(request, response, handler);
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex)
             throws Exception {
-        MDC.remove("eventTraceId");
+        TraceContext.endServerSpan(request, response);
+        RequestDeadline.clear();
         HandlerInterceptor.super.afterCompletion(request, response, handler, ex);
     }
 
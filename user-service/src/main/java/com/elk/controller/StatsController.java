@@ -0,0 +1,48 @@
+package com.elk.controller;
+
+import com.elk.cache.DepartmentCache;
+import com.elk.client.DepartmentClient;
+import com.elk.ingestion.UserIngestionBuffer;
+import com.elk.logging.LogPipelineStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.elk.utils.ResponseUtils.successResponseWithBody;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+
+    private final DepartmentCache departmentCache;
+    private final DepartmentClient departmentClient;
+    private final UserIngestionBuffer userIngestionBuffer;
+
+    @GetMapping("/department-cache")
+    public ResponseEntity<Object> getDepartmentCacheStats() {
+        return successResponseWithBody(departmentCache.getStats());
+    }
+
+    @GetMapping("/department-client")
+    public ResponseEntity<Object> getDepartmentClientStats() {
+        return successResponseWithBody(departmentClient.getPoolStats());
+    }
+
+    @GetMapping("/department-resilience")
+    public ResponseEntity<Object> getDepartmentResilienceStats() {
+        return successResponseWithBody(departmentClient.getResilienceStats());
+    }
+
+    @GetMapping("/user-ingestion")
+    public ResponseEntity<Object> getUserIngestionStats() {
+        return successResponseWithBody(userIngestionBuffer.getStats());
+    }
+
+    @GetMapping("/logging")
+    public ResponseEntity<Object> getLoggingStats() {
+        return successResponseWithBody(LogPipelineStats.collect());
+    }
+}
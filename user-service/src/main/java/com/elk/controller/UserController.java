@@ -1,20 +1,34 @@
 package com.elk.controller;
 
+import com.elk.dto.BatchResultDTO;
+import com.elk.dto.CursorPageDTO;
 import com.elk.dto.UserDTO;
+import com.elk.dto.UserFilterDTO;
+import com.elk.dto.UserIngestionDTO;
+import com.elk.dto.UserStatsDTO;
 import com.elk.service.UserService;
+import com.elk.ingestion.UserIngestionBuffer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
+import static com.elk.utils.ETagUtils.userPageTag;
+import static com.elk.utils.ETagUtils.userTag;
+import static com.elk.utils.ResponseUtils.acceptedResponseWithBody;
+import static com.elk.utils.ResponseUtils.noContentResponse;
 import static com.elk.utils.ResponseUtils.successResponseWithBody;
+import static com.elk.utils.ResponseUtils.successResponseWithETag;
 
 @RestController
 @RequiredArgsConstructor
@@ -22,6 +36,7 @@ import static com.elk.utils.ResponseUtils.successResponseWithBody;
 public class UserController {
 
     private final UserService userService;
+    private final UserIngestionBuffer userIngestionBuffer;
 
     @GetMapping("/hello")
     public ResponseEntity<Object> hello() {
@@ -30,10 +45,26 @@ public class UserController {
 
     @PostMapping("/user")
     public ResponseEntity<Object> addUser(@RequestBody UserDTO userDTO) {
+        if (userIngestionBuffer.isEnabled()) {
+            UserIngestionDTO userIngestionDTO = userService.acceptUser(userDTO);
+            return acceptedResponseWithBody(userIngestionDTO);
+        }
         userDTO = userService.addUser(userDTO);
         return successResponseWithBody(userDTO);
     }
 
+    @GetMapping("/user/ingestion/{acceptanceId}")
+    public ResponseEntity<Object> getIngestionStatus(@PathVariable("acceptanceId") String acceptanceId) {
+        UserIngestionDTO userIngestionDTO = userService.getIngestionStatus(acceptanceId);
+        return successResponseWithBody(userIngestionDTO);
+    }
+
+    @PostMapping("/user/batch")
+    public ResponseEntity<Object> upsertUsers(@RequestBody List<UserDTO> userDTOList) {
+        BatchResultDTO batchResultDTO = userService.upsertUsers(userDTOList);
+        return successResponseWithBody(batchResultDTO);
+    }
+
     @PutMapping("/user/{userId}")
     public ResponseEntity<Object> updateUser(@PathVariable("userId") Long userId,
                                                    @RequestBody UserDTO userDTO) {
@@ -41,15 +72,40 @@ public class UserController {
         return successResponseWithBody(userDTO);
     }
 
+    @PatchMapping("/user/{userId}")
+    public ResponseEntity<Object> patchUser(@PathVariable("userId") Long userId,
+                                            @RequestBody Map<String, Object> fields) {
+        userService.patchUser(userId, fields);
+        return noContentResponse();
+    }
+
+    @GetMapping("/user/stats")
+    public ResponseEntity<Object> getUserStats() {
+        UserStatsDTO userStatsDTO = userService.getUserStats();
+        return successResponseWithBody(userStatsDTO);
+    }
+
     @GetMapping("/user")
-    public ResponseEntity<Object> getUsers() {
-        List<UserDTO> userDTOList = userService.getUsers();
-        return successResponseWithBody(userDTOList);
+    public ResponseEntity<Object> getUsers(@RequestParam(value = "limit", required = false) Integer limit,
+                                           @RequestParam(value = "after", required = false) String after,
+                                           @RequestParam(value = "expand", required = false) String expand,
+                                           @RequestParam(value = "departmentId", required = false) Long departmentId,
+                                           @RequestParam(value = "gender", required = false) String gender,
+                                           @RequestParam(value = "minAge", required = false) Integer minAge,
+                                           @RequestParam(value = "maxAge", required = false) Integer maxAge) {
+        UserFilterDTO userFilterDTO = UserFilterDTO.builder()
+                .departmentId(departmentId)
+                .gender(gender)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .build();
+        CursorPageDTO<UserDTO> userPage = userService.getUsers(limit, after, expand, userFilterDTO);
+        return successResponseWithETag(userPage, userPageTag(userPage));
     }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<Object> getDepartments(@PathVariable("userId") Long userId) {
         UserDTO departmentDTO = userService.getUserById(userId);
-        return successResponseWithBody(departmentDTO);
+        return successResponseWithETag(departmentDTO, userTag(departmentDTO));
     }
 }
@@ -0,0 +1,51 @@
+package com.elk.ingestion;
+
+import com.elk.dto.UserDTO;
+import com.elk.model.User;
+import com.elk.stats.UserStatsAggregator;
+import com.elk.stats.UserStatsKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts a group of queued users in one transaction, as ordered JDBC batches, so the group costs one commit.
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class UserBatchWriter {
+
+    private final EntityManager entityManager;
+    private final UserStatsAggregator userStatsAggregator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int jdbcBatchSize;
+
+    /**
+     * Returns the generated ids in the order of {@code userDTOList}.
+     */
+    public List<Long> insert(List<UserDTO> userDTOList) {
+        List<Long> userIds = new ArrayList<>(userDTOList.size());
+        List<UserStatsKey> addedKeys = new ArrayList<>(userDTOList.size());
+        for (int i = 0; i < userDTOList.size(); i++) {
+            User user = User.buildEntity(userDTOList.get(i));
+            entityManager.persist(user);
+            userIds.add(user.getId());
+            addedKeys.add(UserStatsKey.of(user));
+            if ((i + 1) % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        userStatsAggregator.recordAfterCommit(List.of(), addedKeys);
+        return userIds;
+    }
+}
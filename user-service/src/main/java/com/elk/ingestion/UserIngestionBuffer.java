@@ -0,0 +1,277 @@
+package com.elk.ingestion;
+
+import com.elk.dto.IngestionStatsDTO;
+import com.elk.dto.UserDTO;
+import com.elk.dto.UserIngestionDTO;
+import com.elk.exceptions.ServiceUnavailableException;
+import com.elk.exceptions.TooManyRequestsException;
+import com.elk.trace.TraceIds;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for {@code POST /api/v1/user}. Accepted users wait in a bounded queue and one thread commits
+ * them in groups of up to {@code max-batch-size}, waiting at most {@code max-delay-ms} after the oldest one was
+ * accepted, so a burst costs one commit per group instead of one per user. A full queue is rejected with 429. If a
+ * group fails, its users are committed one by one so only the bad rows fail. Stopping the context stops new
+ * submissions and commits everything still queued; the phase puts this after the web server has stopped and before
+ * the data source is closed. Submissions check {@code running} and enqueue under the read side of
+ * {@code admission} and stop() flips it under the write side, so every acknowledged user is queued before the final
+ * drain starts.
+ */
+@Slf4j
+@Component
+public class UserIngestionBuffer implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final UserBatchWriter userBatchWriter;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long drainTimeoutMs;
+    private final BlockingQueue<PendingUser> queue;
+    private final Cache<String, UserIngestionDTO> statuses;
+    private final DistributionSummary batchSizes;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final ReadWriteLock admission = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public UserIngestionBuffer(UserBatchWriter userBatchWriter,
+                               MeterRegistry meterRegistry,
+                               @Value("${user.ingestion.async-enabled:false}") boolean enabled,
+                               @Value("${user.ingestion.buffer-capacity:10000}") int capacity,
+                               @Value("${user.ingestion.max-batch-size:500}") int maxBatchSize,
+                               @Value("${user.ingestion.max-delay-ms:50}") long maxDelayMs,
+                               @Value("${user.ingestion.drain-timeout-ms:30000}") long drainTimeoutMs,
+                               @Value("${user.ingestion.status-retention-seconds:3600}") long statusRetentionSeconds,
+                               @Value("${user.ingestion.status-max-size:100000}") long statusMaxSize) {
+        this.userBatchWriter = userBatchWriter;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(statusMaxSize, capacity))
+                .expireAfterWrite(Duration.ofSeconds(statusRetentionSeconds))
+                .build();
+        this.batchSizes = DistributionSummary.builder("user.ingestion.batch.size").register(meterRegistry);
+        Gauge.builder("user.ingestion.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("user.ingestion.users", accepted, LongAdder::sum).tag("result", "accepted")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.ingestion.users", rejected, LongAdder::sum).tag("result", "rejected")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.ingestion.users", committed, LongAdder::sum).tag("result", "committed")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.ingestion.users", failed, LongAdder::sum).tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public UserIngestionDTO submit(UserDTO userDTO) {
+        String acceptanceId = TraceIds.newTraceId();
+        UserIngestionDTO userIngestionDTO = UserIngestionDTO.queued(acceptanceId);
+        admission.readLock().lock();
+        try {
+            if (!running) {
+                throw new ServiceUnavailableException("User ingestion is not running.");
+            }
+            statuses.put(acceptanceId, userIngestionDTO);
+            if (!queue.offer(new PendingUser(acceptanceId, userDTO, System.nanoTime()))) {
+                statuses.invalidate(acceptanceId);
+                rejected.increment();
+                throw new TooManyRequestsException("User ingestion buffer is full.");
+            }
+        } finally {
+            admission.readLock().unlock();
+        }
+        accepted.increment();
+        return userIngestionDTO;
+    }
+
+    public UserIngestionDTO getStatus(String acceptanceId) {
+        return statuses.getIfPresent(acceptanceId);
+    }
+
+    public IngestionStatsDTO getStats() {
+        long commitCount = commits.sum();
+        long userCount = committed.sum() + failed.sum();
+        return IngestionStatsDTO.builder()
+                .enabled(enabled)
+                .queued(queue.size())
+                .capacity(capacity)
+                .accepted(accepted.sum())
+                .rejected(rejected.sum())
+                .committed(committed.sum())
+                .failed(failed.sum())
+                .commits(commitCount)
+                .averageBatchSize(commitCount == 0 ? 0 : (double) userCount / commitCount)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "user-ingestion");
+        worker.start();
+        log.info("User ingestion started, capacity : {}, max batch size : {}", capacity, maxBatchSize);
+    }
+
+    @Override
+    public void stop() {
+        admission.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            admission.writeLock().unlock();
+        }
+        log.info("Draining user ingestion buffer, queued : {}", queue.size());
+        try {
+            worker.join(drainTimeoutMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.error("User ingestion not drained within {} ms, queued : {}", drainTimeoutMs, queue.size());
+            return;
+        }
+        // Left over when the worker was interrupted; nothing is offered any more once running is false.
+        List<PendingUser> batch = new ArrayList<>();
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            commit(batch);
+            batch.clear();
+        }
+        log.info("User ingestion stopped.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+
+    private void run() {
+        List<PendingUser> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingUser first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch, first.acceptedAtNanos + maxDelayNanos);
+            } catch (InterruptedException ex) {
+                // Whatever is still queued is committed by stop().
+                Thread.currentThread().interrupt();
+                commit(batch);
+                return;
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void fill(List<PendingUser> batch, long deadlineNanos) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remainingNanos <= 0 || !running) {
+                return;
+            }
+            PendingUser next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingUser> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<UserDTO> userDTOList = new ArrayList<>(batch.size());
+        batch.forEach(pendingUser -> userDTOList.add(pendingUser.userDTO));
+        commits.increment();
+        batchSizes.record(batch.size());
+        try {
+            List<Long> userIds = userBatchWriter.insert(userDTOList);
+            for (int i = 0; i < batch.size(); i++) {
+                markCommitted(batch.get(i), userIds.get(i));
+            }
+        } catch (Exception ex) {
+            log.warn("Group commit of {} users failed, committing one by one : {}", batch.size(), ex.getMessage());
+            batch.forEach(this::commitOne);
+        }
+    }
+
+    private void commitOne(PendingUser pendingUser) {
+        try {
+            markCommitted(pendingUser, userBatchWriter.insert(List.of(pendingUser.userDTO)).get(0));
+        } catch (Exception ex) {
+            log.error("Exception while ingest user, acceptanceId : {}", pendingUser.acceptanceId, ex);
+            failed.increment();
+            statuses.put(pendingUser.acceptanceId,
+                    UserIngestionDTO.failed(pendingUser.acceptanceId, "Exception while add user."));
+        }
+    }
+
+    private void markCommitted(PendingUser pendingUser, Long userId) {
+        committed.increment();
+        statuses.put(pendingUser.acceptanceId, UserIngestionDTO.committed(pendingUser.acceptanceId, userId));
+    }
+
+    private static final class PendingUser {
+
+        private final String acceptanceId;
+        private final UserDTO userDTO;
+        private final long acceptedAtNanos;
+
+        private PendingUser(String acceptanceId, UserDTO userDTO, long acceptedAtNanos) {
+            this.acceptanceId = acceptanceId;
+            this.userDTO = userDTO;
+            this.acceptedAtNanos = acceptedAtNanos;
+        }
+    }
+}
@@ -1,9 +1,48 @@
 package com.elk.repositories;
 
+import com.elk.dto.UserDTO;
 import com.elk.model.User;
+import com.elk.stats.UserStatsCount;
+import com.elk.stats.UserStatsKey;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    @Transactional(readOnly = true)
+    @Query("select new com.elk.dto.UserDTO(u.id, u.firstName, u.lastName, u.gender, u.age, u.departmentId, u.version) " +
+            "from User u where u.id > :afterId order by u.id asc")
+    List<UserDTO> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Locks the row (select ... for update) until the transaction ends, so the key cannot change between this read and
+     * the update that follows it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.elk.stats.UserStatsKey(u.departmentId, u.gender, u.age) from User u where u.id = :id")
+    Optional<UserStatsKey> findStatsKeyByIdForUpdate(@Param("id") Long id);
+
+    @Query("select new com.elk.stats.UserStatsCount(u.departmentId, u.gender, u.age, count(u)) from User u " +
+            "group by u.departmentId, u.gender, u.age")
+    List<UserStatsCount> countByStatsKey();
+
+    @Modifying
+    @Query("update User u set u.firstName = :firstName, u.lastName = :lastName, u.gender = :gender, u.age = :age, " +
+            "u.departmentId = :departmentId, u.version = u.version + 1 " +
+            "where u.id = :id and (:version is null or u.version = :version)")
+    int updateIfVersionMatches(@Param("id") Long id, @Param("firstName") String firstName,
+                               @Param("lastName") String lastName, @Param("gender") String gender,
+                               @Param("age") int age, @Param("departmentId") Long departmentId,
+                               @Param("version") Long version);
+}
@@ -0,0 +1,11 @@
+package com.elk.repositories;
+
+import com.elk.dto.UserDTO;
+import com.elk.dto.UserFilterDTO;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    List<UserDTO> findFilteredPageAfter(UserFilterDTO userFilterDTO, Long afterId, int limit);
+}
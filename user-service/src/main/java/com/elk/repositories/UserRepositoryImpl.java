@@ -0,0 +1,57 @@
+package com.elk.repositories;
+
+import com.elk.dto.UserDTO;
+import com.elk.dto.UserFilterDTO;
+import com.elk.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset page of users matching the given filter, selected straight into {@link UserDTO} so no managed entity is
+ * created. Only the conditions that are set end up in the WHERE clause, so each combination can use its index.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO> findFilteredPageAfter(UserFilterDTO userFilterDTO, Long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserDTO> query = criteriaBuilder.createQuery(UserDTO.class);
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.greaterThan(user.get("id"), afterId));
+        if (userFilterDTO.getDepartmentId() != null) {
+            predicates.add(criteriaBuilder.equal(user.get("departmentId"), userFilterDTO.getDepartmentId()));
+        }
+        if (userFilterDTO.getGender() != null) {
+            predicates.add(criteriaBuilder.equal(user.get("gender"), userFilterDTO.getGender()));
+        }
+        if (userFilterDTO.getMinAge() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(user.get("age"), userFilterDTO.getMinAge()));
+        }
+        if (userFilterDTO.getMaxAge() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(user.get("age"), userFilterDTO.getMaxAge()));
+        }
+
+        query.select(criteriaBuilder.construct(UserDTO.class, user.get("id"), user.get("firstName"),
+                        user.get("lastName"), user.get("gender"), user.get("age"), user.get("departmentId"),
+                        user.get("version")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteriaBuilder.asc(user.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,16 +1,32 @@
 package com.elk.service;
 
+import com.elk.dto.BatchResultDTO;
+import com.elk.dto.CursorPageDTO;
 import com.elk.dto.UserDTO;
+import com.elk.dto.UserFilterDTO;
+import com.elk.dto.UserIngestionDTO;
+import com.elk.dto.UserStatsDTO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
 
     UserDTO addUser(UserDTO userDTO);
 
+    UserIngestionDTO acceptUser(UserDTO userDTO);
+
+    UserIngestionDTO getIngestionStatus(String acceptanceId);
+
     UserDTO updateUser(Long userId, UserDTO userDTO);
 
-    List<UserDTO> getUsers();
+    void patchUser(Long userId, Map<String, Object> fields);
+
+    BatchResultDTO upsertUsers(List<UserDTO> userDTOList);
+
+    CursorPageDTO<UserDTO> getUsers(Integer limit, String after, String expand, UserFilterDTO userFilterDTO);
 
     UserDTO getUserById(Long userId);
+
+    UserStatsDTO getUserStats();
 }
@@ -1,28 +1,54 @@
 package com.elk.service.impl;
 
+import com.elk.cache.DepartmentCache;
+import com.elk.dto.BatchItemResultDTO;
+import com.elk.dto.BatchResultDTO;
+import com.elk.dto.CursorPageDTO;
 import com.elk.dto.DepartmentDTO;
 import com.elk.dto.UserDTO;
+import com.elk.dto.UserFilterDTO;
+import com.elk.dto.UserIngestionDTO;
+import com.elk.dto.UserStatsDTO;
+import com.elk.exceptions.ConflictException;
+import com.elk.exceptions.DeadlineExceededException;
 import com.elk.exceptions.InternalServerException;
 import com.elk.exceptions.InvalidRequestException;
 import com.elk.exceptions.ResourceNotFoundException;
+import com.elk.exceptions.ServiceUnavailableException;
+import com.elk.ingestion.UserIngestionBuffer;
 import com.elk.model.User;
 import com.elk.repositories.UserRepository;
 import com.elk.service.UserService;
+import com.elk.stats.UserStatsAggregator;
+import com.elk.stats.UserStatsKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.elk.utils.CursorUtils.decode;
+import static com.elk.utils.CursorUtils.normalizeLimit;
 
 @Service
 @Transactional
@@ -30,11 +56,24 @@ import java.util.Optional;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final String VERSION_FIELD = "version";
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "gender", "age", "departmentId");
+
     private final UserRepository userRepository;
-    private final RestTemplate restTemplate;
+    private final DepartmentCache departmentCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final UserStatsAggregator userStatsAggregator;
+    private final UserIngestionBuffer userIngestionBuffer;
+
+    @Value("${department.resilience.degrade-when-unavailable:true}")
+    boolean degradeWhenDepartmentUnavailable;
 
-    @Value("${department.url}")
-    String departmentUrl;
+    @Value("${batch.max-size:10000}")
+    int batchMaxSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int jdbcBatchSize;
 
     @Override
     public UserDTO addUser(UserDTO userDTO) {
@@ -42,63 +81,260 @@ public class UserServiceImpl implements UserService {
         try {
             User user = User.buildEntity(userDTO);
             userRepository.save(user);
+            userStatsAggregator.recordAfterCommit(null, UserStatsKey.of(user));
             log.info("End addUser method.");
             return UserDTO.buildDTO(user);
         } catch (Exception ex) {
-            log.error("Exception while add user.", ex);
-            throw new InternalServerException("Exception while add user.");
+            throw new InternalServerException("Exception while add user.", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserIngestionDTO acceptUser(UserDTO userDTO) {
+        log.info("Invoke acceptUser method.");
+        if (userDTO == null) {
+            throw new InvalidRequestException("Request is null.");
         }
+        UserIngestionDTO userIngestionDTO = userIngestionBuffer.submit(userDTO);
+        log.info("End acceptUser method.");
+        return userIngestionDTO;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserIngestionDTO getIngestionStatus(String acceptanceId) {
+        log.info("Invoke getIngestionStatus method.");
+        UserIngestionDTO userIngestionDTO = userIngestionBuffer.getStatus(acceptanceId);
+        if (userIngestionDTO == null) {
+            throw new ResourceNotFoundException("User ingestion not found by acceptanceId : " + acceptanceId);
+        }
+        log.info("End getIngestionStatus method.");
+        return userIngestionDTO;
     }
 
     @Override
     public UserDTO updateUser(Long userId, UserDTO userDTO) {
         log.info("Invoke updateUser method.");
         validateUpdateRequest(userDTO, userId);
+        UserStatsKey previousKey;
+        int updatedRows;
         try {
-            User user = User.buildEntity(userDTO);
-            user.setId(userId);
-            userRepository.save(user);
-            log.info("End updateUser method.");
-            return UserDTO.buildDTO(user);
+            previousKey = userRepository.findStatsKeyByIdForUpdate(userId).orElse(null);
+            updatedRows = userRepository.updateIfVersionMatches(userId, userDTO.getFirstName(), userDTO.getLastName(),
+                    userDTO.getGender(), userDTO.getAge(), userDTO.getDepartmentId(), userDTO.getVersion());
+        } catch (Exception ex) {
+            throw new InternalServerException("Exception while update user.", ex);
+        }
+        if (updatedRows == 0) {
+            throw updateFailure(userId, userDTO.getVersion());
+        }
+        userStatsAggregator.recordAfterCommit(previousKey,
+                new UserStatsKey(userDTO.getDepartmentId(), userDTO.getGender(), userDTO.getAge()));
+        log.info("End updateUser method.");
+        return UserDTO.builder()
+                .id(userId)
+                .firstName(userDTO.getFirstName())
+                .lastName(userDTO.getLastName())
+                .gender(userDTO.getGender())
+                .age(userDTO.getAge())
+                .departmentId(userDTO.getDepartmentId())
+                .version(userDTO.getVersion() == null ? null : userDTO.getVersion() + 1)
+                .build();
+    }
+
+    @Override
+    public void patchUser(Long userId, Map<String, Object> fields) {
+        log.info("Invoke patchUser method.");
+        UserDTO userDTO = validatePatchRequest(fields);
+        UserStatsKey previousKey;
+        int updatedRows;
+        try {
+            previousKey = userRepository.findStatsKeyByIdForUpdate(userId).orElse(null);
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<User> update = criteriaBuilder.createCriteriaUpdate(User.class);
+            Root<User> root = update.from(User.class);
+            BeanWrapper values = new BeanWrapperImpl(userDTO);
+            for (String field : fields.keySet()) {
+                if (PATCHABLE_FIELDS.contains(field)) {
+                    update.set(field, values.getPropertyValue(field));
+                }
+            }
+            update.set(root.<Long>get(VERSION_FIELD), criteriaBuilder.sum(root.<Long>get(VERSION_FIELD), 1L));
+            if (userDTO.getVersion() == null) {
+                update.where(criteriaBuilder.equal(root.get("id"), userId));
+            } else {
+                update.where(criteriaBuilder.equal(root.get("id"), userId),
+                        criteriaBuilder.equal(root.get(VERSION_FIELD), userDTO.getVersion()));
+            }
+            updatedRows = entityManager.createQuery(update).executeUpdate();
         } catch (Exception ex) {
-            log.error("Exception while update user.", ex);
-            throw new InternalServerException("Exception while update user.");
+            throw new InternalServerException("Exception while patch user.", ex);
         }
+        if (updatedRows == 0) {
+            throw updateFailure(userId, userDTO.getVersion());
+        }
+        userStatsAggregator.recordAfterCommit(previousKey, patchedStatsKey(previousKey, fields, userDTO));
+        log.info("End patchUser method.");
     }
 
     @Override
-    public List<UserDTO> getUsers() {
+    public BatchResultDTO upsertUsers(List<UserDTO> userDTOList) {
+        log.info("Invoke upsertUsers method.");
+        validateBatchRequest(userDTOList);
+        try {
+            BatchItemResultDTO[] results = new BatchItemResultDTO[userDTOList.size()];
+            Set<Long> userIds = userDTOList.stream()
+                    .filter(Objects::nonNull)
+                    .map(UserDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, User> existingUsers = userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            List<User> newUsers = new ArrayList<>();
+            List<Integer> newUserIndexes = new ArrayList<>();
+            List<UserStatsKey> removedKeys = new ArrayList<>();
+            List<UserStatsKey> addedKeys = new ArrayList<>();
+            for (int index = 0; index < userDTOList.size(); index++) {
+                UserDTO userDTO = userDTOList.get(index);
+                if (userDTO == null) {
+                    results[index] = BatchItemResultDTO.failed(index, null, "Request is null.");
+                } else if (userDTO.getId() == null) {
+                    newUsers.add(User.buildEntity(userDTO));
+                    newUserIndexes.add(index);
+                } else {
+                    User user = existingUsers.get(userDTO.getId());
+                    if (user == null) {
+                        results[index] = BatchItemResultDTO.failed(index, userDTO.getId(),
+                                "User not found by userId : " + userDTO.getId());
+                    } else if (userDTO.getVersion() != null && userDTO.getVersion() != user.getVersion()) {
+                        results[index] = BatchItemResultDTO.failed(index, userDTO.getId(),
+                                "User was modified, current version : " + user.getVersion());
+                    } else {
+                        removedKeys.add(UserStatsKey.of(user));
+                        copyToEntity(userDTO, user);
+                        addedKeys.add(UserStatsKey.of(user));
+                        results[index] = BatchItemResultDTO.updated(index, user.getId());
+                    }
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            for (int i = 0; i < newUsers.size(); i++) {
+                User user = newUsers.get(i);
+                entityManager.persist(user);
+                addedKeys.add(UserStatsKey.of(user));
+                results[newUserIndexes.get(i)] = BatchItemResultDTO.created(newUserIndexes.get(i), user.getId());
+                if ((i + 1) % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            userStatsAggregator.recordAfterCommit(removedKeys, addedKeys);
+            log.info("End upsertUsers method.");
+            return BatchResultDTO.buildResult(Arrays.asList(results));
+        } catch (Exception ex) {
+            throw new InternalServerException("Exception while upsert users.", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorPageDTO<UserDTO> getUsers(Integer limit, String after, String expand, UserFilterDTO userFilterDTO) {
         log.info("Invoke getUsers method.");
+        int pageSize = normalizeLimit(limit);
+        long afterId = decode(after);
+        boolean expandDepartment = isDepartmentExpand(expand);
+        validateFilter(userFilterDTO);
+        CursorPageDTO<UserDTO> userPage;
         try {
-            List<User> userList = userRepository.findAll();
-            log.info("End getUsers method.");
-            return userList.stream().map(UserDTO::buildDTO).toList();
+            List<UserDTO> userList = userFilterDTO.isEmpty()
+                    ? userRepository.findPageAfter(afterId, PageRequest.of(0, pageSize + 1))
+                    : userRepository.findFilteredPageAfter(userFilterDTO, afterId, pageSize + 1);
+            userPage = CursorPageDTO.buildPage(userList, pageSize, UserDTO::getId);
         } catch (Exception ex) {
-            log.error("Exception while get all users.", ex);
-            throw new InternalServerException("Exception while get all users.");
+            throw new InternalServerException("Exception while get all users.", ex);
+        }
+        if (expandDepartment) {
+            setDepartments(userPage.getItems());
         }
+        log.info("End getUsers method.");
+        return userPage;
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public UserDTO getUserById(Long userId) {
         log.info("Invoke getUserById method.");
         User user = getUserByUserId(userId);
         if (user == null) {
             throw new ResourceNotFoundException("User not found by userId : " + userId);
         }
-        String url = departmentUrl+"/api/v1/department/" + user.getDepartmentId();
-        log.info("Department url : {}", url);
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("eventTraceId", MDC.get("eventTraceId"));
-        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-
-        ResponseEntity<DepartmentDTO> departmentDTO = restTemplate.exchange(url, HttpMethod.GET, requestEntity, DepartmentDTO.class);
         UserDTO userDTO = UserDTO.buildDTO(user);
-        userDTO.setDepartment(departmentDTO.getBody());
+        userDTO.setDepartment(getDepartment(user.getDepartmentId()));
         log.info("End getUserById method.");
         return userDTO;
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public UserStatsDTO getUserStats() {
+        log.info("Invoke getUserStats method.");
+        UserStatsDTO userStatsDTO = userStatsAggregator.getStats();
+        log.info("End getUserStats method.");
+        return userStatsDTO;
+    }
+
+    private void setDepartments(List<UserDTO> userDTOList) {
+        Set<Long> departmentIds = userDTOList.stream()
+                .map(UserDTO::getDepartmentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (departmentIds.isEmpty()) {
+            return;
+        }
+        Map<Long, DepartmentDTO> departmentMap;
+        try {
+            departmentMap = departmentCache.getDepartments(departmentIds);
+        } catch (ServiceUnavailableException | DeadlineExceededException ex) {
+            if (!degradeWhenDepartmentUnavailable) {
+                throw ex;
+            }
+            log.warn("Returning users without department : {}", ex.getMessage());
+            return;
+        }
+        userDTOList.forEach(userDTO -> userDTO.setDepartment(departmentMap.get(userDTO.getDepartmentId())));
+    }
+
+    private DepartmentDTO getDepartment(Long departmentId) {
+        if (departmentId == null) {
+            return null;
+        }
+        try {
+            return departmentCache.getDepartment(departmentId);
+        } catch (ServiceUnavailableException | DeadlineExceededException ex) {
+            if (!degradeWhenDepartmentUnavailable) {
+                throw ex;
+            }
+            log.warn("Returning user without department : {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isDepartmentExpand(String expand) {
+        if (!StringUtils.hasLength(expand)) {
+            return false;
+        }
+        if (!"department".equals(expand)) {
+            throw new InvalidRequestException("Unsupported expand : " + expand);
+        }
+        return true;
+    }
+
     private void validateUpdateRequest(UserDTO userDTO, Long userId) {
         if (userDTO == null) {
             throw new InvalidRequestException("Request is null.");
@@ -106,10 +342,70 @@ public class UserServiceImpl implements UserService {
         if (!Objects.equals(userDTO.getId(), userId)) {
             throw new InvalidRequestException("DepartmentId is not match with request.");
         }
-        User user = getUserByUserId(userId);
-        if (user == null) {
-            throw new ResourceNotFoundException("User not found by userId : " + userId);
+    }
+
+    private UserDTO validatePatchRequest(Map<String, Object> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new InvalidRequestException("Request is empty.");
         }
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (!PATCHABLE_FIELDS.contains(field.getKey()) && !VERSION_FIELD.equals(field.getKey())) {
+                throw new InvalidRequestException("Field can not be patched : " + field.getKey());
+            }
+            if ("age".equals(field.getKey()) && field.getValue() == null) {
+                throw new InvalidRequestException("Field must not be null : age");
+            }
+        }
+        if (fields.size() == 1 && fields.containsKey(VERSION_FIELD)) {
+            throw new InvalidRequestException("Request has no field to patch.");
+        }
+        try {
+            return objectMapper.convertValue(fields, UserDTO.class);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Patch request not valid : {}", ex.getMessage());
+            throw new InvalidRequestException("Request has a field with an invalid value.");
+        }
+    }
+
+    private RuntimeException updateFailure(Long userId, Long version) {
+        if (!userRepository.existsById(userId)) {
+            return new ResourceNotFoundException("User not found by userId : " + userId);
+        }
+        return new ConflictException("User was modified, expected version : " + version);
+    }
+
+    private UserStatsKey patchedStatsKey(UserStatsKey previousKey, Map<String, Object> fields, UserDTO userDTO) {
+        if (previousKey == null) {
+            return null;
+        }
+        return new UserStatsKey(
+                fields.containsKey("departmentId") ? userDTO.getDepartmentId() : previousKey.getDepartmentId(),
+                fields.containsKey("gender") ? userDTO.getGender() : previousKey.getGender(),
+                fields.containsKey("age") ? userDTO.getAge() : previousKey.getAge());
+    }
+
+    private void validateFilter(UserFilterDTO userFilterDTO) {
+        if (userFilterDTO.getMinAge() != null && userFilterDTO.getMaxAge() != null
+                && userFilterDTO.getMinAge() > userFilterDTO.getMaxAge()) {
+            throw new InvalidRequestException("minAge must not be greater than maxAge.");
+        }
+    }
+
+    private void validateBatchRequest(List<UserDTO> userDTOList) {
+        if (userDTOList == null || userDTOList.isEmpty()) {
+            throw new InvalidRequestException("Request is empty.");
+        }
+        if (userDTOList.size() > batchMaxSize) {
+            throw new InvalidRequestException("Batch size must not exceed " + batchMaxSize + ".");
+        }
+    }
+
+    private void copyToEntity(UserDTO userDTO, User user) {
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setGender(userDTO.getGender());
+        user.setAge(userDTO.getAge());
+        user.setDepartmentId(userDTO.getDepartmentId());
     }
 
     private User getUserByUserId(Long userId) {
@@ -0,0 +1,194 @@
+package com.elk.stats;
+
+import com.elk.dto.UserStatsDTO;
+import com.elk.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Users per department, age bucket and gender, held in memory so the stats endpoint never scans the user table.
+ * Built from one GROUP BY query at startup, moved by the write paths once their transaction commits, and rebuilt
+ * from the database on a fixed delay to correct any drift (e.g. rows changed outside this service). Never lazy: the
+ * startup build and the schedule are only registered once the bean exists.
+ * <p>
+ * The rebuild replaces the counts with a snapshot, so it has to know which commits the snapshot contains. Commits
+ * that record stats hold {@code commitBarrier} for reading from before their commit until their after-commit update
+ * has run. The rebuild takes it for writing only to open a REPEATABLE READ snapshot: every commit before that point
+ * is in the snapshot and already recorded, every later one is recorded after it and replayed on top of it.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+public class UserStatsAggregator {
+
+    private static final String UNKNOWN_GENDER = "UNKNOWN";
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final int ageBucketWidth;
+    private final ReadWriteLock commitBarrier = new ReentrantReadWriteLock();
+
+    private final Map<Long, Long> departmentCounts = new HashMap<>();
+    private final Map<Integer, Long> ageBucketCounts = new HashMap<>();
+    private final Map<String, Long> genderCounts = new HashMap<>();
+    private long usersWithoutDepartment;
+    private long totalUsers;
+    private Instant reconciledAt;
+    private List<Map.Entry<UserStatsKey, Long>> recordedSinceSnapshot;
+
+    public UserStatsAggregator(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${user.stats.age-bucket-width:10}") int ageBucketWidth) {
+        this.userRepository = userRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.ageBucketWidth = ageBucketWidth;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${user.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${user.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        log.info("Invoke reconcile method.");
+        List<UserStatsCount> counts;
+        try {
+            counts = snapshotTransaction.execute(status -> {
+                commitBarrier.writeLock().lock();
+                try {
+                    // The first consistent read opens the snapshot the GROUP BY below reads from.
+                    userRepository.existsById(0L);
+                    synchronized (this) {
+                        recordedSinceSnapshot = new ArrayList<>();
+                    }
+                } finally {
+                    commitBarrier.writeLock().unlock();
+                }
+                return userRepository.countByStatsKey();
+            });
+        } catch (Exception ex) {
+            synchronized (this) {
+                recordedSinceSnapshot = null;
+            }
+            log.error("Exception while reconcile user stats.", ex);
+            return;
+        }
+        synchronized (this) {
+            long previousTotal = totalUsers;
+            boolean reconciled = reconciledAt != null;
+            departmentCounts.clear();
+            ageBucketCounts.clear();
+            genderCounts.clear();
+            usersWithoutDepartment = 0;
+            totalUsers = 0;
+            counts.forEach(count -> apply(count.getDepartmentId(), count.getGender(), count.getAge(), count.getCount()));
+            recordedSinceSnapshot.forEach(change -> apply(change.getKey(), change.getValue()));
+            recordedSinceSnapshot = null;
+            reconciledAt = Instant.now();
+            if (reconciled && previousTotal != totalUsers) {
+                log.warn("User stats drifted from database, users : {}, expected : {}", previousTotal, totalUsers);
+            }
+        }
+        log.info("End reconcile method.");
+    }
+
+    public void recordAfterCommit(UserStatsKey removed, UserStatsKey added) {
+        recordAfterCommit(removed == null ? List.of() : List.of(removed), added == null ? List.of() : List.of(added));
+    }
+
+    public void recordAfterCommit(Collection<UserStatsKey> removed, Collection<UserStatsKey> added) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(removed, added);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean barrierHeld;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitBarrier.readLock().lock();
+                barrierHeld = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                record(removed, added);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (barrierHeld) {
+                    barrierHeld = false;
+                    commitBarrier.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    public synchronized UserStatsDTO getStats() {
+        Map<String, Long> ageHistogram = new LinkedHashMap<>();
+        new TreeMap<>(ageBucketCounts).forEach((bucket, count) -> ageHistogram.put(
+                bucket * ageBucketWidth + "-" + (bucket * ageBucketWidth + ageBucketWidth - 1), count));
+        return UserStatsDTO.builder()
+                .totalUsers(totalUsers)
+                .usersPerDepartment(new TreeMap<>(departmentCounts))
+                .usersWithoutDepartment(usersWithoutDepartment)
+                .ageHistogram(ageHistogram)
+                .genders(new TreeMap<>(genderCounts))
+                .reconciledAt(reconciledAt == null ? null : reconciledAt.toString())
+                .build();
+    }
+
+    private synchronized void record(Collection<UserStatsKey> removed, Collection<UserStatsKey> added) {
+        removed.forEach(key -> recordChange(key, -1));
+        added.forEach(key -> recordChange(key, 1));
+    }
+
+    private void recordChange(UserStatsKey key, long delta) {
+        apply(key, delta);
+        if (recordedSinceSnapshot != null) {
+            recordedSinceSnapshot.add(Map.entry(key, delta));
+        }
+    }
+
+    private void apply(UserStatsKey key, long delta) {
+        apply(key.getDepartmentId(), key.getGender(), key.getAge(), delta);
+    }
+
+    private void apply(Long departmentId, String gender, int age, long delta) {
+        if (departmentId == null) {
+            usersWithoutDepartment += delta;
+        } else {
+            departmentCounts.merge(departmentId, delta, UserStatsAggregator::sumOrRemove);
+        }
+        ageBucketCounts.merge(Math.floorDiv(age, ageBucketWidth), delta, UserStatsAggregator::sumOrRemove);
+        genderCounts.merge(gender == null ? UNKNOWN_GENDER : gender, delta, UserStatsAggregator::sumOrRemove);
+        totalUsers += delta;
+    }
+
+    private static Long sumOrRemove(Long count, Long delta) {
+        long sum = count + delta;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,14 @@
+package com.elk.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class UserStatsCount {
+
+    Long departmentId;
+    String gender;
+    int age;
+    long count;
+}
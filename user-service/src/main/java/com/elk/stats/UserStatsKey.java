@@ -0,0 +1,18 @@
+package com.elk.stats;
+
+import com.elk.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class UserStatsKey {
+
+    Long departmentId;
+    String gender;
+    int age;
+
+    public static UserStatsKey of(User user) {
+        return new UserStatsKey(user.getDepartmentId(), user.getGender(), user.getAge());
+    }
+}
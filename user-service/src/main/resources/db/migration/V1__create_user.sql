@@ -0,0 +1,12 @@
+-- Schema previously created by spring.jpa.hibernate.ddl-auto=update, before versions, indexes and pooled ids.
+-- Databases created that way are baselined at version 1 (baselineOnMigrate), so this script only runs against an
+-- empty database.
+create table user (
+    id            bigint       not null auto_increment,
+    age           integer      not null,
+    department_id bigint,
+    first_name    varchar(255),
+    gender        varchar(255),
+    last_name     varchar(255),
+    primary key (id)
+) engine = InnoDB;
@@ -0,0 +1,20 @@
+-- Optimistic locking. Existing rows start at version 0.
+alter table user add column version bigint not null default 0;
+alter table user alter column version drop default;
+
+-- Keyset pages are ordered by id, so the equality filters get indexes ending in id.
+create index idx_user_department_id_id on user (department_id, id);
+create index idx_user_gender_id on user (gender, id);
+create index idx_user_department_id_gender_id on user (department_id, gender, id);
+create index idx_user_age on user (age);
+
+-- Ids now come from the pooled user_seq (blocks of 50) instead of AUTO_INCREMENT. MySQL has no sequences,
+-- Hibernate emulates user_seq with a table. Start it one allocation block past max(id), as IdSequenceAligner does.
+alter table user modify id bigint not null;
+
+create table user_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into user_seq (next_val)
+select coalesce((floor(max(id) / 50) + 2) * 50 + 1, 1) from user;